@@ -0,0 +1,76 @@
+package io.jenkins.plugins.nexus;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.listeners.ItemListener;
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
+import io.jenkins.plugins.nexus.config.NexusRepoServerGlobalConfig;
+import io.jenkins.plugins.nexus.handler.ArtifactHandlers;
+import io.jenkins.plugins.nexus.handler.CachedArtifactHandler;
+import java.util.Optional;
+import java.util.logging.Level;
+import jenkins.model.Jenkins;
+import lombok.extern.java.Log;
+
+/**
+ * Job加载或保存时，在后台预加载 Nexus Artifact Choices 参数的版本列表
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-16
+ */
+@Log
+@Extension
+public class NexusArtifactChoicesCacheWarmer extends ItemListener {
+
+    @Override
+    public void onLoaded() {
+        for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+            warm(job);
+        }
+    }
+
+    @Override
+    public void onCreated(Item item) {
+        warm(item);
+    }
+
+    @Override
+    public void onUpdated(Item item) {
+        warm(item);
+    }
+
+    private static void warm(Item item) {
+        if (!(item instanceof Job)) {
+            return;
+        }
+        ParametersDefinitionProperty property = ((Job<?, ?>) item).getProperty(ParametersDefinitionProperty.class);
+        if (property == null) {
+            return;
+        }
+        for (ParameterDefinition definition : property.getParameterDefinitions()) {
+            if (definition instanceof NexusArtifactChoicesParameterDefinition) {
+                try {
+                    warm((NexusArtifactChoicesParameterDefinition) definition);
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "Warm version items error. job=" + item.getFullName(), e);
+                }
+            }
+        }
+    }
+
+    private static void warm(NexusArtifactChoicesParameterDefinition definition) {
+        Optional<NexusRepoServerConfig> nxRepoCfgOp = NexusRepoServerGlobalConfig.getConfig(definition.getServerId());
+        if (nxRepoCfgOp.isEmpty()) {
+            return;
+        }
+        NexusRepoServerConfig nxRepoCfg = nxRepoCfgOp.get();
+        CachedArtifactHandler handler = ArtifactHandlers.getCachedHandler(nxRepoCfg.getRegistryEnum());
+        for (ListBoxModel.Option option : definition.getGroupIdArtifactIdList()) {
+            handler.warm(nxRepoCfg, option.value, definition.getRepository(), definition.getMaxVersionCount());
+        }
+    }
+}
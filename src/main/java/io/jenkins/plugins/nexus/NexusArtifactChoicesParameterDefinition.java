@@ -8,15 +8,26 @@ import hudson.Util;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
 import hudson.util.FormValidation;
+import hudson.util.HttpResponses;
 import hudson.util.ListBoxModel;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.config.NexusRepoServerGlobalConfig;
 import io.jenkins.plugins.nexus.handler.ArtifactHandler;
 import io.jenkins.plugins.nexus.handler.ArtifactHandlers;
+import io.jenkins.plugins.nexus.handler.CachedArtifactHandler;
+import io.jenkins.plugins.nexus.handler.VersionIndex;
 import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
 import io.jenkins.plugins.nexus.utils.*;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import lombok.Getter;
@@ -29,8 +40,10 @@ import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.HttpResponse;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
 import org.kohsuke.stapler.verb.POST;
 
@@ -161,6 +174,11 @@ public class NexusArtifactChoicesParameterDefinition extends ParameterDefinition
     @Symbol("nexusArtifactChoices")
     public static class DescriptorImpl extends ParameterDescriptor {
 
+        /**
+         * 分页查询版本列表时每页的最大条数
+         */
+        public static final int MAX_VERSION_PAGE_SIZE = 500;
+
         @NonNull
         @Override
         public String getDisplayName() {
@@ -191,14 +209,149 @@ public class NexusArtifactChoicesParameterDefinition extends ParameterDefinition
                     ? Registry.NEXUS
                     : Registry.valueOf(nxRepoCfg.getRegistry());
             ArtifactHandler artifactHandler = ArtifactHandlers.getHandler(registry);
-            items = artifactHandler.getItems(nxRepoCfg, option, repository, limits);
+            // 筛选
+            items = artifactHandler.searchItems(nxRepoCfg, option, repository, limits, keyword);
+
+            return items;
+        }
 
-            if (Utils.isNotEmpty(keyword)) {
-                // 筛选
-                items.removeIf(e -> Utils.isNotContains(e.value, keyword) || Utils.isNotContains(e.name, keyword));
+        /**
+         * 批量查询接口：一次请求返回所有选中的 group:artifact 的版本列表，各个option在服务端并行查询。
+         * 以NDJSON格式逐页返回，每查询到一页输出一行 {"option": "...", "values": [...]}，
+         * 然后每个option输出一行 {"option": "...", "total": n}，最后输出 {"done": true}。
+         * option查询失败时输出 {"option": "...", "error": "..."}，不再输出该option的total，页面据此区分没有版本和查询出错
+         *
+         * @param options  多个option，按行分隔
+         * @param pageSize 每个option最多返回的版本数，小于等于0时不限制，其余版本分页查询
+         */
+        @POST
+        public void doStreamVersionOptions(
+                StaplerResponse rsp,
+                @QueryParameter("serverId") String serverId,
+                @QueryParameter("repository") String repository,
+                @QueryParameter("options") String options,
+                @QueryParameter("limits") int limits,
+                @QueryParameter("pageSize") int pageSize)
+                throws IOException {
+            NexusRepoServerConfig nxRepoCfg =
+                    NexusRepoServerGlobalConfig.getConfig(serverId).orElseThrow();
+            ArtifactHandler artifactHandler = ArtifactHandlers.getHandler(nxRepoCfg.getRegistryEnum());
+            rsp.setContentType("application/x-ndjson;charset=UTF-8");
+            // 避免反向代理缓冲响应
+            rsp.setHeader("X-Accel-Buffering", "no");
+            PrintWriter writer = rsp.getWriter();
+            List<String> optionList = splitOptions(options);
+            Map<String, AtomicInteger> totals = new ConcurrentHashMap<>();
+            Set<String> failed = ConcurrentHashMap.newKeySet();
+            artifactHandler.streamItems(
+                    nxRepoCfg,
+                    optionList,
+                    repository,
+                    limits,
+                    (option, page) -> {
+                        int total = totals.computeIfAbsent(option, k -> new AtomicInteger())
+                                .addAndGet(page.size());
+                        int skip = pageSize <= 0 ? 0 : Math.max(0, total - pageSize);
+                        if (skip >= page.size()) {
+                            return;
+                        }
+                        JSONObject line = new JSONObject();
+                        line.put("option", option);
+                        line.put("values", toJson(page.subList(0, page.size() - skip)));
+                        synchronized (writer) {
+                            writer.print(line + "\n");
+                            writer.flush();
+                        }
+                    },
+                    (option, error) -> {
+                        failed.add(option);
+                        JSONObject line = new JSONObject();
+                        line.put("option", option);
+                        line.put("error", errorMessage(error));
+                        synchronized (writer) {
+                            writer.print(line + "\n");
+                            writer.flush();
+                        }
+                    });
+            for (String option : optionList) {
+                if (failed.contains(option)) {
+                    continue;
+                }
+                AtomicInteger total = totals.get(option);
+                JSONObject line = new JSONObject();
+                line.put("option", option);
+                line.put("total", total == null ? 0 : total.get());
+                writer.print(line + "\n");
+            }
+            JSONObject done = new JSONObject();
+            done.put("done", true);
+            synchronized (writer) {
+                writer.print(done + "\n");
+                writer.flush();
             }
+        }
 
-            return items;
+        /**
+         * 分页查询版本列表，按关键字筛选，返回 {"total": n, "offset": n, "values": [...]}
+         *
+         * @param keyword 关键字，在整个仓库中搜索包含关键字的版本，为空时不筛选
+         * @param offset 起始位置
+         * @param size   每页条数，最大为 {@link #MAX_VERSION_PAGE_SIZE}
+         */
+        @POST
+        @JavaScriptMethod(name = "versionOptionsPage")
+        public HttpResponse doVersionOptionsPage(
+                @QueryParameter("serverId") String serverId,
+                @QueryParameter("repository") String repository,
+                @QueryParameter("option") String option,
+                @QueryParameter("limits") int limits,
+                @QueryParameter("keyword") String keyword,
+                @QueryParameter("offset") int offset,
+                @QueryParameter("size") int size) {
+            NexusRepoServerConfig nxRepoCfg =
+                    NexusRepoServerGlobalConfig.getConfig(serverId).orElseThrow();
+            CachedArtifactHandler artifactHandler = ArtifactHandlers.getCachedHandler(nxRepoCfg.getRegistryEnum());
+            int pageSize = size <= 0 ? MAX_VERSION_PAGE_SIZE : Math.min(size, MAX_VERSION_PAGE_SIZE);
+            VersionIndex.Page page =
+                    artifactHandler.getPage(nxRepoCfg, option, repository, limits, keyword, offset, pageSize);
+            JSONObject data = new JSONObject();
+            data.put("total", page.getTotal());
+            data.put("offset", page.getOffset());
+            data.put("values", toJson(page.getItems()));
+            return HttpResponses.okJSON(data);
+        }
+
+        private static List<String> splitOptions(String options) {
+            return StringUtils.isBlank(options)
+                    ? Collections.emptyList()
+                    : Arrays.stream(options.split(CHOICES_DELIMITER))
+                            .map(Util::fixEmptyAndTrim)
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .collect(Collectors.toList());
+        }
+
+        /**
+         * 显示在参数页面上的错误信息，使用最内层异常的信息
+         */
+        private static String errorMessage(Throwable error) {
+            Throwable root = error;
+            while (root.getCause() != null && root.getCause() != root) {
+                root = root.getCause();
+            }
+            String message = Util.fixEmptyAndTrim(root.getMessage());
+            return message != null ? message : root.getClass().getSimpleName();
+        }
+
+        private static JSONArray toJson(List<ListBoxModel.Option> items) {
+            JSONArray values = new JSONArray();
+            for (ListBoxModel.Option item : items) {
+                JSONObject value = new JSONObject();
+                value.put("name", item.name);
+                value.put("value", item.value);
+                values.add(value);
+            }
+            return values;
         }
 
         public FormValidation doCheckGroupIdArtifactIds(@QueryParameter String value) {
@@ -253,7 +406,7 @@ public class NexusArtifactChoicesParameterDefinition extends ParameterDefinition
             if (!nxRepoCfg.isDocker()) {
                 try {
                     NexusRepositoryClient client = new NexusRepositoryClient(nxRepoCfg);
-                    NexusRepositoryDetails nxRepo = client.getRepositoryDetails(repository);
+                    NexusRepositoryDetails nxRepo = RepositoryDetailsCache.refresh(client, repository);
                     if (NexusRepositoryFormat.docker.matches(nxRepo.getFormat())) {
                         return FormValidation.error("Repository is docker when nexus server is not docker !!!");
                     }
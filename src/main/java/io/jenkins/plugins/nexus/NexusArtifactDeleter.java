@@ -20,6 +20,7 @@ import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
 import io.jenkins.plugins.nexus.model.resp.NexusSearchComponentsResp;
 import io.jenkins.plugins.nexus.utils.Logger;
 import io.jenkins.plugins.nexus.utils.NexusRepositoryClient;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
 import io.jenkins.plugins.nexus.utils.Utils;
 import java.io.IOException;
 import java.util.HashSet;
@@ -90,7 +91,7 @@ public class NexusArtifactDeleter extends Builder implements SimpleBuildStep {
         Logger logger = new Logger(NAME, listener);
         NexusRepoServerConfig nxRepoCfg = nxRepoCfgOp.get();
         NexusRepositoryClient client = new NexusRepositoryClient(nxRepoCfg);
-        NexusRepositoryDetails nxRepo = client.getRepositoryDetails(env.expand(repository));
+        NexusRepositoryDetails nxRepo = RepositoryDetailsCache.get(client, env.expand(repository));
         NexusSearchComponentsReq.NexusSearchComponentsReqBuilder reqBuilder =
                 NexusSearchComponentsReq.builder().groupId(groupId).artifactId(artifactId);
         int loopNum = 0;
@@ -6,6 +6,8 @@ import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.AbstractProject;
+import hudson.model.Computer;
+import hudson.model.Node;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
@@ -17,12 +19,14 @@ import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.config.NexusRepoServerGlobalConfig;
 import io.jenkins.plugins.nexus.model.dto.NexusArtifactDownloadResult;
 import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadOptions;
 import io.jenkins.plugins.nexus.model.req.NexusSearchAssertsReq;
 import io.jenkins.plugins.nexus.model.resp.NexusAssertDetails;
 import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
-import io.jenkins.plugins.nexus.model.resp.NexusSearchAssertsResp;
+import io.jenkins.plugins.nexus.utils.ChecksumDigest;
 import io.jenkins.plugins.nexus.utils.Logger;
 import io.jenkins.plugins.nexus.utils.NexusRepositoryClient;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
 import io.jenkins.plugins.nexus.utils.Utils;
 import java.io.File;
 import java.io.IOException;
@@ -57,6 +61,16 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
 
     public static final String NAME = "NexusArtifactDownloader";
 
+    private static final int MAX_DOWNLOAD_THREADS = 16;
+
+    private static final int DEFAULT_DOWNLOAD_THREADS = 4;
+
+    private static final int DEFAULT_RETRIES = 2;
+
+    private static final int DEFAULT_SPLIT_PARTS = 4;
+
+    private static final int DEFAULT_CACHE_MAX_SIZE_MB = 2048;
+
     /**
      * Nexus Repo Server ID
      */
@@ -85,6 +99,46 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
      * 可下载的最大Assert数量
      */
     private int maxAssertNum = 50;
+    /**
+     * 并行下载的线程数
+     */
+    private int downloadThreads = DEFAULT_DOWNLOAD_THREADS;
+    /**
+     * 下载失败时继续下载其它文件，最后汇总错误
+     */
+    private boolean collectErrors = false;
+    /**
+     * 下载失败的重试次数，0表示不重试，所以用null区分旧配置中没有的字段
+     */
+    private Integer retries = DEFAULT_RETRIES;
+    /**
+     * 文件大小超过该值(MB)时分段并发下载，0表示不分段
+     */
+    private int splitThresholdMb = 0;
+    /**
+     * 分段下载的分段数
+     */
+    private int splitParts = DEFAULT_SPLIT_PARTS;
+    /**
+     * 使用Agent本地缓存
+     */
+    private boolean useCache = false;
+    /**
+     * 缓存目录，为空时使用Agent根目录下的 caches/nexus-artifacts
+     */
+    private String cacheDir;
+    /**
+     * 缓存容量，单位MB
+     */
+    private int cacheMaxSizeMb = DEFAULT_CACHE_MAX_SIZE_MB;
+    /**
+     * 使用硬链接把缓存文件放到工作空间
+     */
+    private boolean cacheHardLink = false;
+    /**
+     * 本地文件已存在时校验是否变化，未变化时跳过下载
+     */
+    private boolean revalidate = false;
 
     @DataBoundConstructor
     public NexusArtifactDownloader(
@@ -110,6 +164,75 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
         this.maxAssertNum = maxAssertNum;
     }
 
+    @DataBoundSetter
+    public void setDownloadThreads(int downloadThreads) {
+        this.downloadThreads = downloadThreads;
+    }
+
+    @DataBoundSetter
+    public void setCollectErrors(boolean collectErrors) {
+        this.collectErrors = collectErrors;
+    }
+
+    @DataBoundSetter
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    @DataBoundSetter
+    public void setSplitThresholdMb(int splitThresholdMb) {
+        this.splitThresholdMb = splitThresholdMb;
+    }
+
+    @DataBoundSetter
+    public void setSplitParts(int splitParts) {
+        this.splitParts = splitParts;
+    }
+
+    @DataBoundSetter
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
+    @DataBoundSetter
+    public void setCacheDir(String cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    @DataBoundSetter
+    public void setCacheMaxSizeMb(int cacheMaxSizeMb) {
+        this.cacheMaxSizeMb = cacheMaxSizeMb;
+    }
+
+    @DataBoundSetter
+    public void setCacheHardLink(boolean cacheHardLink) {
+        this.cacheHardLink = cacheHardLink;
+    }
+
+    @DataBoundSetter
+    public void setRevalidate(boolean revalidate) {
+        this.revalidate = revalidate;
+    }
+
+    /**
+     * 兼容旧版本配置，XStream不执行字段初始化，未保存的下载参数使用默认值
+     */
+    protected Object readResolve() {
+        if (downloadThreads <= 0) {
+            downloadThreads = DEFAULT_DOWNLOAD_THREADS;
+        }
+        if (retries == null) {
+            retries = DEFAULT_RETRIES;
+        }
+        if (splitParts <= 0) {
+            splitParts = DEFAULT_SPLIT_PARTS;
+        }
+        if (cacheMaxSizeMb <= 0) {
+            cacheMaxSizeMb = DEFAULT_CACHE_MAX_SIZE_MB;
+        }
+        return this;
+    }
+
     @Override
     public void perform(
             @NonNull Run<?, ?> run,
@@ -141,7 +264,7 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
 
         long startTime = System.currentTimeMillis();
         NexusRepositoryClient client = new NexusRepositoryClient(nxRepoCfg, auth);
-        NexusRepositoryDetails nxRepo = client.getRepositoryDetails(repositoryEx);
+        NexusRepositoryDetails nxRepo = RepositoryDetailsCache.get(client, repositoryEx);
         log.log(Level.INFO, "Get nexus repository details spend time: {0}", (System.currentTimeMillis() - startTime));
         startTime = System.currentTimeMillis();
 
@@ -162,19 +285,33 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
                         .artifactId(artifactIdEx)
                         .version(versionEx)
                         .continuationToken(continuationToken);
-                NexusSearchAssertsResp resp = client.searchAsserts(nxRepo, reqBuilder.build());
-                asserts.addAll(resp.getItems());
+                // 达到最大数量后不再解析剩余的结果
+                continuationToken = client.searchAsserts(nxRepo, reqBuilder.build(), ass -> {
+                    asserts.add(ass);
+                    return asserts.size() < maxAssertNum;
+                });
 
-                if (StringUtils.isBlank(resp.getContinuationToken())) {
+                if (StringUtils.isBlank(continuationToken)) {
                     break;
                 }
-                continuationToken = resp.getContinuationToken();
             }
 
             for (NexusAssertDetails ass : asserts) {
                 String fileName = Utils.getFileName(ass.getPath());
                 FilePath dfp = target.child(fileName);
                 NexusDownloadInfo di = new NexusDownloadInfo(ass.getDownloadUrl(), dfp.getRemote());
+                di.setFileSize(ass.getFileSize());
+                di.setLastModified(ass.getLastModified());
+                di.setSha1(ass.checksum(ChecksumDigest.SHA1));
+                di.setSha256(ass.checksum(ChecksumDigest.SHA256));
+                if (Utils.isNotEmpty(di.getSha256())) {
+                    // 按内容摘要缓存，不同仓库中相同的文件共享缓存
+                    di.setCacheKey(ChecksumDigest.SHA256 + ":" + di.getSha256());
+                } else if (Utils.isNotEmpty(ass.getLastModified())) {
+                    di.setCacheKey(String.format(
+                            "%s/%s%s@%s",
+                            nxRepoCfg.getServerUrl(), ass.getRepository(), ass.getPath(), ass.getLastModified()));
+                }
                 downloadInfos.add(di);
             }
             log.log(Level.INFO, "Search asserts spend time: {0}ms", (System.currentTimeMillis() - startTime));
@@ -183,13 +320,81 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
         if (downloadInfos.isEmpty()) {
             logger.log("Not found file to download!!!");
         } else {
-            NexusArtifactDownloadResult result = target.act(new RemoteDownloader(auth, nxRepoCfg, downloadInfos));
-            for (NexusDownloadInfo df : downloadInfos) {
-                logger.log("Download file: %s", df.getFilePath());
+            NexusDownloadOptions options = new NexusDownloadOptions();
+            options.setThreads(Math.max(1, Math.min(downloadThreads, MAX_DOWNLOAD_THREADS)));
+            options.setFailFast(!collectErrors);
+            options.setRetries(Math.max(0, retries));
+            options.setSplitThreshold(splitThresholdMb * 1024L * 1024L);
+            options.setSplitParts(Math.max(1, Math.min(splitParts, MAX_DOWNLOAD_THREADS)));
+            options.setCacheDir(resolveCacheDir(workspace, env));
+            options.setCacheMaxSize(Math.max(0, cacheMaxSizeMb) * 1024L * 1024L);
+            options.setCacheHardLink(cacheHardLink);
+            options.setRevalidate(revalidate);
+            options.setValidatorsDir(resolveValidatorsDir(workspace));
+            NexusArtifactDownloadResult result =
+                    target.act(new RemoteDownloader(auth, nxRepoCfg, downloadInfos, options));
+            for (NexusArtifactDownloadResult.FileResult fr : result.getFiles()) {
+                if (fr.isFailed()) {
+                    logger.error("Download file failed: %s, %s", fr.getFilePath(), fr.getError());
+                } else if (fr.isNotModified()) {
+                    logger.log(
+                            "File not modified: %s, size: %s", fr.getFilePath(), Utils.formatBytes(fr.getBytes()));
+                } else if (fr.isCached()) {
+                    logger.log(
+                            "Download file from cache: %s, size: %s",
+                            fr.getFilePath(),
+                            Utils.formatBytes(fr.getBytes()));
+                } else {
+                    logger.log(
+                            "Download file: %s, size: %s, spend time: %sms, speed: %s/s",
+                            fr.getFilePath(),
+                            Utils.formatBytes(fr.getBytes()),
+                            fr.getSpendTime(),
+                            Utils.formatBytes(fr.getBytesPerSecond()));
+                }
             }
-            logger.log("Download spend time: %sms", String.valueOf(result.getSpendTime()));
+            logger.log(
+                    "Download spend time: %sms, total size: %s, speed: %s/s, threads: %s",
+                    result.getSpendTime(),
+                    Utils.formatBytes(result.getTotalBytes()),
+                    Utils.formatBytes(result.getBytesPerSecond()),
+                    options.getThreads());
             log.log(Level.INFO, "Download spend time: {0}ms", result.getSpendTime());
+            List<NexusArtifactDownloadResult.FileResult> failedFiles = result.getFailedFiles();
+            if (!failedFiles.isEmpty()) {
+                throw new IOException(String.format(
+                        "%d of %d files failed to download", failedFiles.size(), result.getFiles().size()));
+            }
+        }
+    }
+
+    private String resolveCacheDir(FilePath workspace, EnvVars env) {
+        if (!useCache) {
+            return null;
+        }
+        if (Utils.isNotEmpty(cacheDir)) {
+            return env.expand(cacheDir);
+        }
+        FilePath cachesDir = agentCachesDir(workspace);
+        return cachesDir == null ? null : cachesDir.child("nexus-artifacts").getRemote();
+    }
+
+    /**
+     * 校验信息保存在Agent根目录下的 caches/nexus-validators，不写入工作空间
+     */
+    private String resolveValidatorsDir(FilePath workspace) {
+        if (!revalidate) {
+            return null;
         }
+        FilePath cachesDir = agentCachesDir(workspace);
+        return cachesDir == null ? null : cachesDir.child("nexus-validators").getRemote();
+    }
+
+    private static FilePath agentCachesDir(FilePath workspace) {
+        Computer computer = workspace.toComputer();
+        Node node = computer == null ? null : computer.getNode();
+        FilePath rootPath = node == null ? null : node.getRootPath();
+        return rootPath == null ? null : rootPath.child("caches");
     }
 
     private static class RemoteDownloader extends MasterToSlaveFileCallable<NexusArtifactDownloadResult> {
@@ -200,24 +405,25 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
         private final String auth;
         private final NexusRepoServerConfig nxRepoCfg;
         private final List<NexusDownloadInfo> downloadInfos;
+        private final NexusDownloadOptions options;
 
-        public RemoteDownloader(String auth, NexusRepoServerConfig nxRepoCfg, List<NexusDownloadInfo> downloadInfos) {
+        public RemoteDownloader(
+                String auth,
+                NexusRepoServerConfig nxRepoCfg,
+                List<NexusDownloadInfo> downloadInfos,
+                NexusDownloadOptions options) {
             this.auth = auth;
             this.nxRepoCfg = nxRepoCfg;
             this.downloadInfos = downloadInfos;
+            this.options = options;
         }
 
         @Override
         public NexusArtifactDownloadResult invoke(File f, VirtualChannel channel)
                 throws IOException, InterruptedException {
-            long startTime = System.currentTimeMillis();
             NexusRepositoryClient client = new NexusRepositoryClient(nxRepoCfg, auth);
-            client.downloadFiles(downloadInfos);
-
-            NexusArtifactDownloadResult result = new NexusArtifactDownloadResult();
-            result.setSpendTime(System.currentTimeMillis() - startTime);
-
-            LOGGER.log(Level.INFO, "Download asserts spend time: {0}", (System.currentTimeMillis() - startTime));
+            NexusArtifactDownloadResult result = client.downloadFiles(downloadInfos, options);
+            LOGGER.log(Level.INFO, "Download asserts spend time: {0}", result.getSpendTime());
             return result;
         }
     }
@@ -284,6 +490,65 @@ public class NexusArtifactDownloader extends Builder implements SimpleBuildStep,
             return FormValidation.ok();
         }
 
+        @POST
+        public FormValidation doCheckDownloadThreads(@QueryParameter String value) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    int num = Integer.parseInt(value);
+                    if (num <= 0 || num > MAX_DOWNLOAD_THREADS) {
+                        return FormValidation.error("Download threads must between 1 and " + MAX_DOWNLOAD_THREADS);
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error("Download threads must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
+        @POST
+        public FormValidation doCheckRetries(@QueryParameter String value) {
+            return checkNonNegativeNumber(value, "Retries");
+        }
+
+        @POST
+        public FormValidation doCheckSplitThresholdMb(@QueryParameter String value) {
+            return checkNonNegativeNumber(value, "Split threshold");
+        }
+
+        @POST
+        public FormValidation doCheckSplitParts(@QueryParameter String value) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    int num = Integer.parseInt(value);
+                    if (num <= 0 || num > MAX_DOWNLOAD_THREADS) {
+                        return FormValidation.error("Split parts must between 1 and " + MAX_DOWNLOAD_THREADS);
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error("Split parts must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
+        private FormValidation checkNonNegativeNumber(String value, String name) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    int num = Integer.parseInt(value);
+                    if (num < 0) {
+                        return FormValidation.error(name + " must not be negative");
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error(name + " must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
+        @POST
+        public FormValidation doCheckCacheMaxSizeMb(@QueryParameter String value) {
+            return checkNonNegativeNumber(value, "Cache max size");
+        }
+
         public ListBoxModel doFillServerIdItems() {
             ListBoxModel items = new ListBoxModel();
             NexusRepoServerGlobalConfig.getInstance()
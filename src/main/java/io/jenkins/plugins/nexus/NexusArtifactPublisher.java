@@ -19,21 +19,25 @@ import io.jenkins.plugins.nexus.action.NexusArtifactPublisherAction;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.config.NexusRepoServerGlobalConfig;
 import io.jenkins.plugins.nexus.model.dto.Artifact;
+import io.jenkins.plugins.nexus.model.dto.NexusUploadOptions;
 import io.jenkins.plugins.nexus.model.req.NexusUploadSingleComponentReq;
 import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
 import io.jenkins.plugins.nexus.utils.Logger;
 import io.jenkins.plugins.nexus.utils.NexusRepositoryClient;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
 import io.jenkins.plugins.nexus.utils.Utils;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import jenkins.model.ArtifactManager;
 import jenkins.tasks.SimpleBuildStep;
@@ -58,6 +62,12 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
     public static final String NAME = "NexusArtifactPublisher";
 
     private static final long serialVersionUID = 1L;
+
+    private static final int MAX_UPLOAD_THREADS = 16;
+
+    private static final int DEFAULT_UPLOAD_THREADS = 4;
+
+    private static final int DEFAULT_RETRIES = 2;
     /**
      * Nexus Repo Server ID
      */
@@ -86,6 +96,22 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
     private String includes;
 
     private String excludes;
+    /**
+     * 并行上传的批次数
+     */
+    private int uploadThreads = DEFAULT_UPLOAD_THREADS;
+    /**
+     * 每个批次上传失败的重试次数，0表示不重试，所以用null区分旧配置中没有的字段
+     */
+    private Integer retries = DEFAULT_RETRIES;
+    /**
+     * raw仓库直接PUT上传文件
+     */
+    private boolean rawPut = false;
+    /**
+     * 只上传内容变化的文件
+     */
+    private boolean skipUnchanged = false;
 
     @DataBoundConstructor
     public NexusArtifactPublisher(
@@ -113,6 +139,39 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
         this.excludes = excludes;
     }
 
+    @DataBoundSetter
+    public void setUploadThreads(int uploadThreads) {
+        this.uploadThreads = uploadThreads;
+    }
+
+    @DataBoundSetter
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    @DataBoundSetter
+    public void setRawPut(boolean rawPut) {
+        this.rawPut = rawPut;
+    }
+
+    @DataBoundSetter
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    /**
+     * 兼容旧版本配置，XStream不执行字段初始化，未保存的上传参数使用默认值
+     */
+    protected Object readResolve() {
+        if (uploadThreads <= 0) {
+            uploadThreads = DEFAULT_UPLOAD_THREADS;
+        }
+        if (retries == null) {
+            retries = DEFAULT_RETRIES;
+        }
+        return this;
+    }
+
     @Override
     public void perform(
             @NonNull Run<?, ?> run,
@@ -128,7 +187,7 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
         }
         NexusRepoServerConfig nxRepoCfg = nxRepoCfgOp.get();
         NexusRepositoryClient client = new NexusRepositoryClient(nxRepoCfg);
-        NexusRepositoryDetails nxRepo = client.getRepositoryDetails(env.expand(repository));
+        NexusRepositoryDetails nxRepo = RepositoryDetailsCache.get(client, env.expand(repository));
         NexusUploadSingleComponentReq req = new NexusUploadSingleComponentReq();
         req.setGroup(env.expand(groupId));
         req.setArtifactId(env.expand(artifactId));
@@ -145,7 +204,12 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
             fileAsserts.add(new NexusUploadSingleComponentReq.FileAssert(new File(fp.getRemote())));
         }
         req.setFileAsserts(fileAsserts);
-        workspace.act(new UploadFileCallable(listener, client, nxRepo, req));
+        NexusUploadOptions options = new NexusUploadOptions();
+        options.setThreads(Math.max(1, Math.min(uploadThreads, MAX_UPLOAD_THREADS)));
+        options.setRetries(Math.max(0, retries));
+        options.setRawPut(rawPut);
+        options.setSkipUnchanged(skipUnchanged);
+        workspace.act(new UploadFileCallable(listener, client, nxRepo, req, options));
 
         // 添加结果
         NexusArtifactPublisherAction action = run.getAction(NexusArtifactPublisherAction.class);
@@ -185,16 +249,27 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
         private final NexusRepositoryClient client;
         private final NexusRepositoryDetails repositoryDetails;
         private final NexusUploadSingleComponentReq uploadSingleComponentReq;
+        private final NexusUploadOptions options;
 
         public UploadFileCallable(
                 TaskListener listener,
                 NexusRepositoryClient client,
                 NexusRepositoryDetails repositoryDetails,
                 NexusUploadSingleComponentReq uploadSingleComponentReq) {
+            this(listener, client, repositoryDetails, uploadSingleComponentReq, new NexusUploadOptions());
+        }
+
+        public UploadFileCallable(
+                TaskListener listener,
+                NexusRepositoryClient client,
+                NexusRepositoryDetails repositoryDetails,
+                NexusUploadSingleComponentReq uploadSingleComponentReq,
+                NexusUploadOptions options) {
             this.listener = listener;
             this.client = client;
             this.repositoryDetails = repositoryDetails;
             this.uploadSingleComponentReq = uploadSingleComponentReq;
+            this.options = options;
         }
 
         @Override
@@ -210,10 +285,48 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
                     uploadSingleComponentReq.getVersion(),
                     uploadSingleComponentReq.getPacking(),
                     uploadSingleComponentReq.assertsPrintInfo());
-            client.uploadSingleComponent(repositoryDetails, uploadSingleComponentReq);
+            long startTime = System.currentTimeMillis();
+            if (options.isSkipUnchanged() && !skipUnchanged(logger)) {
+                logger.log("All files are unchanged, skip upload");
+                return true;
+            }
+            client.uploadSingleComponent(
+                    repositoryDetails, uploadSingleComponentReq, options, msg -> logger.log("%s", msg));
+            logger.log(
+                    "Publish spend time: %sms, threads: %s",
+                    System.currentTimeMillis() - startTime,
+                    options.getThreads());
             return true;
         }
 
+        /**
+         * 从上传列表中移除未变化的文件
+         *
+         * @return 是否还有需要上传的文件
+         */
+        private boolean skipUnchanged(Logger logger) throws IOException {
+            long startTime = System.currentTimeMillis();
+            List<NexusUploadSingleComponentReq.FileAssert> unchanged = client.findUnchangedFiles(
+                    repositoryDetails, uploadSingleComponentReq, options.getThreads());
+            if (!unchanged.isEmpty()) {
+                Set<NexusUploadSingleComponentReq.FileAssert> skipped = new HashSet<>(unchanged);
+                List<NexusUploadSingleComponentReq.FileAssert> changed =
+                        uploadSingleComponentReq.getFileAsserts().stream()
+                                .filter(e -> !skipped.contains(e))
+                                .collect(Collectors.toList());
+                uploadSingleComponentReq.setFileAsserts(changed);
+                long savedBytes = unchanged.stream()
+                        .mapToLong(e -> e.getFile().length())
+                        .sum();
+                logger.log(
+                        "Skip %d unchanged files, saved: %s, spend time: %sms",
+                        unchanged.size(),
+                        Utils.formatBytes(savedBytes),
+                        System.currentTimeMillis() - startTime);
+            }
+            return !uploadSingleComponentReq.getFileAsserts().isEmpty();
+        }
+
         @Override
         public void checkRoles(RoleChecker checker) throws SecurityException {}
     }
@@ -273,6 +386,35 @@ public class NexusArtifactPublisher extends Recorder implements SimpleBuildStep,
             return FormValidation.ok();
         }
 
+        @POST
+        public FormValidation doCheckUploadThreads(@QueryParameter String value) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    int num = Integer.parseInt(value);
+                    if (num <= 0 || num > MAX_UPLOAD_THREADS) {
+                        return FormValidation.error("Upload threads must between 1 and " + MAX_UPLOAD_THREADS);
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error("Upload threads must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
+        @POST
+        public FormValidation doCheckRetries(@QueryParameter String value) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    if (Integer.parseInt(value) < 0) {
+                        return FormValidation.error("Retries must not be negative");
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error("Retries must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
         public ListBoxModel doFillServerIdItems() {
             ListBoxModel items = new ListBoxModel();
             NexusRepoServerGlobalConfig.getInstance()
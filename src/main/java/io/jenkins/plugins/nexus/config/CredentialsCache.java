@@ -0,0 +1,130 @@
+package io.jenkins.plugins.nexus.config;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import io.jenkins.plugins.nexus.utils.Utils;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import jenkins.model.Jenkins;
+import lombok.extern.java.Log;
+
+/**
+ * 凭据查询缓存。每种凭据类型只遍历一次Jenkins中的凭据，建立 ID 到凭据的索引，
+ * 同时缓存凭据ID对应的Authorization请求头。
+ * 只查询Jenkins根目录可见的凭据（系统凭据以及其它凭据提供者在根目录提供的凭据），文件夹和用户凭据不在查询范围内。
+ * 系统凭据保存时（包括通过页面、CLI和Configuration as Code修改）立即清空缓存；
+ * 其它凭据提供者（例如外部密钥管理）没有变更通知，最多5分钟后重新查询，也可以在管理页面手动清空。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-24
+ */
+@Log
+public final class CredentialsCache {
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * 系统凭据的保存文件
+     */
+    private static final String SYSTEM_CREDENTIALS_FILE = "credentials.xml";
+
+    private static volatile State state = new State();
+
+    private CredentialsCache() {}
+
+    /**
+     * 按ID查找凭据，没有时返回null
+     */
+    public static <C extends StandardCredentials> C find(Class<C> type, String credentialsId) {
+        if (Utils.isNullOrEmpty(credentialsId)) {
+            return null;
+        }
+        return type.cast(current().credentials(type).get(credentialsId));
+    }
+
+    /**
+     * 获取凭据ID对应的Authorization请求头，没有缓存时通过loader生成
+     *
+     * @param loader 根据凭据ID生成请求头，没有凭据时返回null
+     */
+    public static String getAuthorization(String credentialsId, Function<String, String> loader) {
+        if (Utils.isNullOrEmpty(credentialsId)) {
+            return null;
+        }
+        return current()
+                .authorizations
+                .computeIfAbsent(credentialsId, k -> Optional.ofNullable(loader.apply(k)))
+                .orElse(null);
+    }
+
+    public static void invalidateAll() {
+        state = new State();
+    }
+
+    private static State current() {
+        State current = state;
+        if (System.currentTimeMillis() - current.createdAt >= TTL_MILLIS) {
+            current = new State();
+            state = current;
+        }
+        return current;
+    }
+
+    private static final class State {
+        private final long createdAt = System.currentTimeMillis();
+
+        private final Map<Class<?>, Map<String, StandardCredentials>> credentials = new ConcurrentHashMap<>();
+
+        private final Map<String, Optional<String>> authorizations = new ConcurrentHashMap<>();
+
+        private Map<String, StandardCredentials> credentials(Class<? extends StandardCredentials> type) {
+            return credentials.computeIfAbsent(type, State::index);
+        }
+
+        /**
+         * 遍历一次凭据建立索引，ID重复时使用第一个
+         */
+        private static Map<String, StandardCredentials> index(Class<?> type) {
+            Map<String, StandardCredentials> index = new HashMap<>();
+            for (StandardCredentials c : CredentialsProvider.lookupCredentialsInItemGroup(
+                    type.asSubclass(StandardCredentials.class), Jenkins.get(), null, Collections.emptyList())) {
+                index.putIfAbsent(c.getId(), c);
+            }
+            log.log(Level.FINE, "Index {0} credentials. type={1}", new Object[] {index.size(), type.getName()});
+            return Collections.unmodifiableMap(index);
+        }
+    }
+
+    /**
+     * 缓存过期时间，单位分钟
+     */
+    public static long getTtlMinutes() {
+        return TimeUnit.MILLISECONDS.toMinutes(TTL_MILLIS);
+    }
+
+    /**
+     * 系统凭据变更时清空缓存。按对象类型和保存的文件判断，其它插件替换系统凭据的保存方式时仍然生效
+     */
+    @Extension
+    public static class CredentialsSaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof SystemCredentialsProvider
+                    || (file != null && SYSTEM_CREDENTIALS_FILE.equals(file.getFile().getName()))) {
+                log.log(Level.FINE, "Credentials changed, invalidate cache. file={0}", file);
+                invalidateAll();
+            }
+        }
+    }
+}
@@ -4,7 +4,17 @@ import hudson.Extension;
 import hudson.model.Descriptor;
 import hudson.model.ManagementLink;
 import hudson.util.FormApply;
+import io.jenkins.plugins.nexus.handler.CachedArtifactHandler;
+import io.jenkins.plugins.nexus.handler.EcrClientRegistry;
+import io.jenkins.plugins.nexus.handler.EcrTokenCache;
+import io.jenkins.plugins.nexus.handler.VersionIndex;
+import io.jenkins.plugins.nexus.utils.ExpiringLruCache;
+import io.jenkins.plugins.nexus.utils.HttpClientRegistry;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
+import io.jenkins.plugins.nexus.utils.ResponseStats;
+import io.jenkins.plugins.nexus.utils.Utils;
 import java.io.IOException;
+import java.util.Map;
 import javax.servlet.ServletException;
 import jenkins.model.Jenkins;
 import org.kohsuke.stapler.StaplerRequest;
@@ -45,4 +55,82 @@ public class NexusManagementLink extends ManagementLink {
     public Descriptor<NexusRepoServerGlobalConfig> getGlobalConfigDescriptor() {
         return Jenkins.get().getDescriptorByType(NexusRepoServerGlobalConfig.class);
     }
+
+    /**
+     * 版本列表缓存，用于展示命中率等统计信息
+     */
+    public ExpiringLruCache<CachedArtifactHandler.ItemsKey, VersionIndex> getVersionCache() {
+        return CachedArtifactHandler.getItemsCache();
+    }
+
+    /**
+     * 合并到其它并发查询的次数
+     */
+    public long getVersionCacheSharedCount() {
+        return CachedArtifactHandler.getItemsFlight().getSharedCount();
+    }
+
+    public String getVersionCacheHitRate() {
+        return String.format("%.1f%%", getVersionCache().getHitRate());
+    }
+
+    /**
+     * 各个Nexus Server的API响应字节数统计
+     */
+    public Map<String, ResponseStats> getResponseStats() {
+        return HttpClientRegistry.getStats();
+    }
+
+    public String formatBytes(long bytes) {
+        return Utils.formatBytes(bytes);
+    }
+
+    public String formatPercent(double percent) {
+        return String.format("%.1f%%", percent);
+    }
+
+    @POST
+    public void doResetResponseStats(StaplerRequest req, StaplerResponse res) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        HttpClientRegistry.getStats().values().forEach(ResponseStats::reset);
+        res.sendRedirect2(".");
+    }
+
+    /**
+     * 仓库详情缓存的条目数
+     */
+    public int getRepositoryCacheSize() {
+        return RepositoryDetailsCache.getCache().size();
+    }
+
+    @POST
+    public void doClearRepositoryCache(StaplerRequest req, StaplerResponse res) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        RepositoryDetailsCache.invalidateAll();
+        res.sendRedirect2(".");
+    }
+
+    public long getCredentialsCacheTtlMinutes() {
+        return CredentialsCache.getTtlMinutes();
+    }
+
+    /**
+     * 清空凭据缓存，同时关闭使用旧凭据的ECR客户端和令牌
+     */
+    @POST
+    public void doClearCredentialsCache(StaplerRequest req, StaplerResponse res) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        CredentialsCache.invalidateAll();
+        EcrClientRegistry.invalidateAll();
+        EcrTokenCache.invalidateAll();
+        res.sendRedirect2(".");
+    }
+
+    @POST
+    public void doClearVersionCache(StaplerRequest req, StaplerResponse res) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        CachedArtifactHandler.invalidateAll();
+        getVersionCache().resetStats();
+        res.sendRedirect2(".");
+    }
 }
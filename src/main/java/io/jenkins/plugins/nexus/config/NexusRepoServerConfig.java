@@ -10,6 +10,7 @@ import hudson.model.Descriptor;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import hudson.util.Secret;
+import io.jenkins.plugins.nexus.utils.HttpClientSettings;
 import io.jenkins.plugins.nexus.utils.HttpUtils;
 import io.jenkins.plugins.nexus.utils.NexusRepositoryClient;
 import io.jenkins.plugins.nexus.utils.Registry;
@@ -43,6 +44,25 @@ public class NexusRepoServerConfig extends AbstractDescribableImpl<NexusRepoServ
     private boolean docker;
     private String registry = Registry.NEXUS.name();
     private String region;
+    private int maxConnTotal = HttpClientSettings.DEFAULT_MAX_CONN_TOTAL;
+    private int maxConnPerRoute = HttpClientSettings.DEFAULT_MAX_CONN_PER_ROUTE;
+    private int connectTimeout = HttpClientSettings.DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = HttpClientSettings.DEFAULT_READ_TIMEOUT;
+    private int idleEvictTime = HttpClientSettings.DEFAULT_IDLE_EVICT_TIME;
+    private int leaseTimeout = HttpClientSettings.DEFAULT_LEASE_TIMEOUT;
+    /**
+     * 上传请求的响应超时时间，单位秒，0表示不限制
+     */
+    private int uploadTimeout;
+    private int maxInFlightRequests;
+    /**
+     * maven2仓库只通过搜索接口查询版本，不读取 maven-metadata.xml
+     */
+    private boolean searchVersionsOnly;
+    /**
+     * 不压缩API响应，用于不能正确处理压缩的代理
+     */
+    private boolean disableCompression;
 
     @DataBoundConstructor
     public NexusRepoServerConfig(String displayName, String serverId, String serverUrl) {
@@ -72,6 +92,104 @@ public class NexusRepoServerConfig extends AbstractDescribableImpl<NexusRepoServ
         this.region = region;
     }
 
+    /**
+     * 小于等于0时使用默认值，JCasC、Job DSL 的配置不经过页面校验
+     */
+    @DataBoundSetter
+    public void setMaxConnTotal(int maxConnTotal) {
+        this.maxConnTotal = positiveOrDefault(maxConnTotal, HttpClientSettings.DEFAULT_MAX_CONN_TOTAL);
+    }
+
+    @DataBoundSetter
+    public void setMaxConnPerRoute(int maxConnPerRoute) {
+        this.maxConnPerRoute = positiveOrDefault(maxConnPerRoute, HttpClientSettings.DEFAULT_MAX_CONN_PER_ROUTE);
+    }
+
+    @DataBoundSetter
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = positiveOrDefault(connectTimeout, HttpClientSettings.DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    @DataBoundSetter
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = positiveOrDefault(readTimeout, HttpClientSettings.DEFAULT_READ_TIMEOUT);
+    }
+
+    @DataBoundSetter
+    public void setIdleEvictTime(int idleEvictTime) {
+        this.idleEvictTime = positiveOrDefault(idleEvictTime, HttpClientSettings.DEFAULT_IDLE_EVICT_TIME);
+    }
+
+    @DataBoundSetter
+    public void setLeaseTimeout(int leaseTimeout) {
+        this.leaseTimeout = positiveOrDefault(leaseTimeout, HttpClientSettings.DEFAULT_LEASE_TIMEOUT);
+    }
+
+    @DataBoundSetter
+    public void setUploadTimeout(int uploadTimeout) {
+        this.uploadTimeout = Math.max(0, uploadTimeout);
+    }
+
+    @DataBoundSetter
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = Math.max(0, maxInFlightRequests);
+    }
+
+    @DataBoundSetter
+    public void setSearchVersionsOnly(boolean searchVersionsOnly) {
+        this.searchVersionsOnly = searchVersionsOnly;
+    }
+
+    @DataBoundSetter
+    public void setDisableCompression(boolean disableCompression) {
+        this.disableCompression = disableCompression;
+    }
+
+    /**
+     * 兼容旧版本配置，未配置的连接参数使用默认值
+     */
+    protected Object readResolve() {
+        if (maxConnTotal <= 0) {
+            maxConnTotal = HttpClientSettings.DEFAULT_MAX_CONN_TOTAL;
+        }
+        if (maxConnPerRoute <= 0) {
+            maxConnPerRoute = HttpClientSettings.DEFAULT_MAX_CONN_PER_ROUTE;
+        }
+        if (connectTimeout <= 0) {
+            connectTimeout = HttpClientSettings.DEFAULT_CONNECT_TIMEOUT;
+        }
+        if (readTimeout <= 0) {
+            readTimeout = HttpClientSettings.DEFAULT_READ_TIMEOUT;
+        }
+        if (idleEvictTime <= 0) {
+            idleEvictTime = HttpClientSettings.DEFAULT_IDLE_EVICT_TIME;
+        }
+        if (leaseTimeout <= 0) {
+            leaseTimeout = HttpClientSettings.DEFAULT_LEASE_TIMEOUT;
+        }
+        uploadTimeout = Math.max(0, uploadTimeout);
+        maxInFlightRequests = Math.max(0, maxInFlightRequests);
+        return this;
+    }
+
+    private static int positiveOrDefault(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    public HttpClientSettings toHttpClientSettings() {
+        HttpClientSettings settings = new HttpClientSettings();
+        settings.setMaxConnTotal(maxConnTotal);
+        settings.setMaxConnPerRoute(Math.min(maxConnPerRoute, maxConnTotal));
+        settings.setConnectTimeout(connectTimeout);
+        settings.setReadTimeout(readTimeout);
+        settings.setIdleEvictTime(idleEvictTime);
+        settings.setLeaseTimeout(leaseTimeout);
+        settings.setUploadTimeout(uploadTimeout);
+        settings.setMaxInFlightRequests(maxInFlightRequests);
+        settings.setCompression(!disableCompression);
+        return settings;
+    }
+
     public Registry getRegistryEnum() {
         if (StringUtils.isBlank(registry)) {
             return Registry.NEXUS;
@@ -90,29 +208,18 @@ public class NexusRepoServerConfig extends AbstractDescribableImpl<NexusRepoServ
     }
 
     public static String credentialsIdToAuthorization(String credentialsId) {
-        StandardUsernameCredentials credentials = findCredential(credentialsId);
-        if (Objects.isNull(credentials)) {
-            return null;
-        }
-        Secret pass = ((StandardUsernamePasswordCredentials) credentials).getPassword();
-        return HttpUtils.getBasicAuth(credentials.getUsername(), Secret.toString(pass));
+        return CredentialsCache.getAuthorization(credentialsId, id -> {
+            StandardUsernameCredentials credentials = findCredential(id);
+            if (Objects.isNull(credentials)) {
+                return null;
+            }
+            Secret pass = ((StandardUsernamePasswordCredentials) credentials).getPassword();
+            return HttpUtils.getBasicAuth(credentials.getUsername(), Secret.toString(pass));
+        });
     }
 
     public static StandardUsernameCredentials findCredential(String credentialsId) {
-        StandardUsernameCredentials credentials = null;
-        if (Utils.isNullOrEmpty(credentialsId)) {
-            return credentials;
-        }
-
-        for (StandardUsernameCredentials c : CredentialsProvider.lookupCredentialsInItemGroup(
-                StandardUsernameCredentials.class, Jenkins.get(), null, Collections.emptyList())) {
-            if (Objects.equals(c.getId(), credentialsId)) {
-                credentials = c;
-                break;
-            }
-        }
-
-        return credentials;
+        return CredentialsCache.find(StandardUsernameCredentials.class, credentialsId);
     }
 
     @Extension
@@ -152,8 +259,9 @@ public class NexusRepoServerConfig extends AbstractDescribableImpl<NexusRepoServ
             if (docker) {
                 if (Registry.NEXUS.equals(registryEnum)) {
                     String auth = credentialsIdToAuthorization(credentialsId);
-                    NexusRepositoryClient client = new NexusRepositoryClient(serverUrl, auth, true);
-                    client.check();
+                    try (NexusRepositoryClient client = new NexusRepositoryClient(serverUrl, auth, true)) {
+                        client.check();
+                    }
                 } else if (Registry.ECR.equals(registryEnum)) {
                     if (Utils.isNullOrEmpty(region)) {
                         return FormValidation.error("Please input region when registry is ECR");
@@ -161,13 +269,73 @@ public class NexusRepoServerConfig extends AbstractDescribableImpl<NexusRepoServ
                 }
             } else {
                 String auth = credentialsIdToAuthorization(credentialsId);
-                NexusRepositoryClient client = new NexusRepositoryClient(serverUrl, auth, false);
-                client.check();
+                try (NexusRepositoryClient client = new NexusRepositoryClient(serverUrl, auth, false)) {
+                    client.check();
+                }
             }
 
             return FormValidation.ok("Validate success");
         }
 
+        public FormValidation doCheckMaxConnTotal(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Max connections");
+        }
+
+        public FormValidation doCheckMaxConnPerRoute(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Max connections per route");
+        }
+
+        public FormValidation doCheckConnectTimeout(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Connect timeout");
+        }
+
+        public FormValidation doCheckReadTimeout(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Read timeout");
+        }
+
+        public FormValidation doCheckIdleEvictTime(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Idle evict time");
+        }
+
+        public FormValidation doCheckLeaseTimeout(@QueryParameter String value) {
+            return checkPositiveNumber(value, "Connection lease timeout");
+        }
+
+        public FormValidation doCheckUploadTimeout(@QueryParameter String value) {
+            return checkNonNegativeNumber(value, "Upload timeout");
+        }
+
+        public FormValidation doCheckMaxInFlightRequests(@QueryParameter String value) {
+            return checkNonNegativeNumber(value, "Max in-flight requests");
+        }
+
+        private FormValidation checkPositiveNumber(String value, String name) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    int num = Integer.parseInt(value);
+                    if (num <= 0) {
+                        return FormValidation.error(name + " must greater than 0");
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error(name + " must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
+        private FormValidation checkNonNegativeNumber(String value, String name) {
+            if (Utils.isNotEmpty(value)) {
+                try {
+                    if (Integer.parseInt(value) < 0) {
+                        return FormValidation.error(name + " must not be negative");
+                    }
+                } catch (NumberFormatException e) {
+                    return FormValidation.error(name + " must be a number");
+                }
+            }
+            return FormValidation.ok();
+        }
+
         public FormValidation doCheckRegistry(@QueryParameter String value) {
             if (Utils.isNullOrEmpty(value)) {
                 return FormValidation.ok();
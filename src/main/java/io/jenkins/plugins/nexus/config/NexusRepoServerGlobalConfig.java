@@ -3,17 +3,29 @@ package io.jenkins.plugins.nexus.config;
 import hudson.Extension;
 import hudson.model.Describable;
 import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.nexus.handler.CachedArtifactHandler;
+import io.jenkins.plugins.nexus.handler.EcrClientRegistry;
+import io.jenkins.plugins.nexus.handler.EcrTokenCache;
+import io.jenkins.plugins.nexus.utils.HttpClientRegistry;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
+import io.jenkins.plugins.nexus.utils.Utils;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 import jenkins.model.Jenkins;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import net.sf.json.JSONObject;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.verb.POST;
 
 /**
  * @author Bruce.Wu
@@ -28,10 +40,31 @@ public class NexusRepoServerGlobalConfig extends Descriptor<NexusRepoServerGloba
     private static final long serialVersionUID = 1L;
 
     private List<NexusRepoServerConfig> configs;
+    /**
+     * 版本列表缓存的最大条目数
+     */
+    private int versionCacheSize = CachedArtifactHandler.DEFAULT_CACHE_SIZE;
+    /**
+     * 版本列表缓存的过期时间，单位秒，0表示不缓存
+     */
+    private int versionCacheSeconds = CachedArtifactHandler.DEFAULT_CACHE_SECONDS;
+    /**
+     * 版本列表过期后仍返回旧值并在后台刷新的时间，单位秒
+     */
+    private int versionCacheStaleSeconds = CachedArtifactHandler.DEFAULT_STALE_SECONDS;
+    /**
+     * serverId到配置的只读索引，加载和保存配置时重建
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile Map<String, NexusRepoServerConfig> configIndex = Collections.emptyMap();
 
     public NexusRepoServerGlobalConfig() {
         super(NexusRepoServerGlobalConfig.class);
         load();
+        rebuildConfigIndex();
+        CachedArtifactHandler.configure(versionCacheSize, versionCacheSeconds, versionCacheStaleSeconds);
     }
 
     @Override
@@ -42,15 +75,80 @@ public class NexusRepoServerGlobalConfig extends Descriptor<NexusRepoServerGloba
     @DataBoundSetter
     public void setConfigs(List<NexusRepoServerConfig> configs) {
         this.configs = configs;
+        rebuildConfigIndex();
+    }
+
+    @DataBoundSetter
+    public void setVersionCacheSize(int versionCacheSize) {
+        this.versionCacheSize = versionCacheSize;
+    }
+
+    @DataBoundSetter
+    public void setVersionCacheSeconds(int versionCacheSeconds) {
+        this.versionCacheSeconds = versionCacheSeconds;
+    }
+
+    @DataBoundSetter
+    public void setVersionCacheStaleSeconds(int versionCacheStaleSeconds) {
+        this.versionCacheStaleSeconds = versionCacheStaleSeconds;
     }
 
     @Override
     public boolean configure(StaplerRequest req, JSONObject json) throws FormException {
         req.bindJSON(this, json);
+        rebuildConfigIndex();
         save();
+        HttpClientRegistry.invalidateAll();
+        CachedArtifactHandler.configure(versionCacheSize, versionCacheSeconds, versionCacheStaleSeconds);
+        CachedArtifactHandler.invalidateAll();
+        RepositoryDetailsCache.invalidateAll();
+        CredentialsCache.invalidateAll();
+        EcrClientRegistry.invalidateAll();
+        EcrTokenCache.invalidateAll();
         return super.configure(req, json);
     }
 
+    @POST
+    public FormValidation doCheckVersionCacheSize(@QueryParameter String value) {
+        return checkNonNegativeNumber(value, "Version cache size");
+    }
+
+    @POST
+    public FormValidation doCheckVersionCacheSeconds(@QueryParameter String value) {
+        return checkNonNegativeNumber(value, "Version cache seconds");
+    }
+
+    @POST
+    public FormValidation doCheckVersionCacheStaleSeconds(@QueryParameter String value) {
+        return checkNonNegativeNumber(value, "Version cache stale seconds");
+    }
+
+    /**
+     * serverId重复时使用第一个配置
+     */
+    private void rebuildConfigIndex() {
+        Map<String, NexusRepoServerConfig> index = new LinkedHashMap<>();
+        if (configs != null) {
+            for (NexusRepoServerConfig config : configs) {
+                index.putIfAbsent(config.getServerId(), config);
+            }
+        }
+        configIndex = Collections.unmodifiableMap(index);
+    }
+
+    private static FormValidation checkNonNegativeNumber(String value, String name) {
+        if (Utils.isNotEmpty(value)) {
+            try {
+                if (Integer.parseInt(value) < 0) {
+                    return FormValidation.error(name + " must not be negative");
+                }
+            } catch (NumberFormatException e) {
+                return FormValidation.error(name + " must be a number");
+            }
+        }
+        return FormValidation.ok();
+    }
+
     public Descriptor<NexusRepoServerConfig> getConfigDescriptor() {
         return Jenkins.get().getDescriptorByType(NexusRepoServerConfig.DescriptorImpl.class);
     }
@@ -60,8 +158,6 @@ public class NexusRepoServerGlobalConfig extends Descriptor<NexusRepoServerGloba
     }
 
     public static Optional<NexusRepoServerConfig> getConfig(String serverId) {
-        return getInstance().configs.stream()
-                .filter(item -> Objects.equals(serverId, item.getServerId()))
-                .findAny();
+        return Optional.ofNullable(getInstance().configIndex.get(serverId));
     }
 }
@@ -4,11 +4,64 @@ import hudson.util.ListBoxModel;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.model.dto.CreateImageRepositoryResult;
 import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
+import io.jenkins.plugins.nexus.utils.Utils;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface ArtifactHandler {
 
     ListBoxModel getItems(NexusRepoServerConfig serverConfig, String option, String repository, int limits);
 
+    /**
+     * 查询包含关键字的版本，关键字为空时返回全部版本
+     */
+    default ListBoxModel searchItems(
+            NexusRepoServerConfig serverConfig, String option, String repository, int limits, String keyword) {
+        ListBoxModel items = getItems(serverConfig, option, repository, limits);
+        if (Utils.isNotEmpty(keyword)) {
+            items.removeIf(e -> Utils.isNotContains(e.value, keyword) || Utils.isNotContains(e.name, keyword));
+        }
+        return items;
+    }
+
+    /**
+     * 分页查询版本列表，每查询到一页就回调一次，用于参数页面逐步显示版本
+     *
+     * @param pageConsumer 接收每一页新增的版本
+     */
+    default void streamItems(
+            NexusRepoServerConfig serverConfig,
+            String option,
+            String repository,
+            int limits,
+            Consumer<ListBoxModel> pageConsumer) {
+        pageConsumer.accept(getItems(serverConfig, option, repository, limits));
+    }
+
+    /**
+     * 分页查询多个 group:artifact 的版本列表，回调可能来自不同的线程。
+     * 单个option查询失败时回调errorConsumer，不影响其它option
+     *
+     * @param pageConsumer  接收option与该option每一页新增的版本
+     * @param errorConsumer 接收查询失败的option与异常
+     */
+    default void streamItems(
+            NexusRepoServerConfig serverConfig,
+            List<String> options,
+            String repository,
+            int limits,
+            BiConsumer<String, ListBoxModel> pageConsumer,
+            BiConsumer<String, Throwable> errorConsumer) {
+        for (String option : options) {
+            try {
+                streamItems(serverConfig, option, repository, limits, page -> pageConsumer.accept(option, page));
+            } catch (RuntimeException e) {
+                errorConsumer.accept(option, e);
+            }
+        }
+    }
+
     GetLoginPasswordResult getLoginPassword(NexusRepoServerConfig serverConfig);
 
     default CreateImageRepositoryResult createImageRepository(
@@ -6,9 +6,13 @@ public final class ArtifactHandlers {
     private ArtifactHandlers() {}
 
     public static ArtifactHandler getHandler(Registry registry) {
+        return getCachedHandler(registry);
+    }
+
+    public static CachedArtifactHandler getCachedHandler(Registry registry) {
         if (Registry.ECR.equals(registry)) {
-            return new ECRArtifactHandler();
+            return new CachedArtifactHandler(new ECRArtifactHandler());
         }
-        return new NexusArtifactHandler();
+        return new CachedArtifactHandler(new NexusArtifactHandler());
     }
 }
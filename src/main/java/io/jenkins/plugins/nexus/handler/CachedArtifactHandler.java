@@ -0,0 +1,337 @@
+package io.jenkins.plugins.nexus.handler;
+
+import hudson.Util;
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.ListBoxModel;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
+import io.jenkins.plugins.nexus.model.dto.CreateImageRepositoryResult;
+import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
+import io.jenkins.plugins.nexus.utils.ExpiringLruCache;
+import io.jenkins.plugins.nexus.utils.NexusClientException;
+import io.jenkins.plugins.nexus.utils.SingleFlight;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.java.Log;
+
+/**
+ * 缓存版本列表的ArtifactHandler，按 (serverId, repository, option, limits, keyword) 缓存查询结果，
+ * 减少打开参数化构建页面时对Nexus搜索接口的请求。相同Key的并发查询合并为一次查询。
+ * 缓存过期后先返回旧值，同时在后台线程刷新。
+ * 按关键字查询时总是在整个仓库中搜索，结果单独缓存，不在已缓存的前limits个版本中筛选。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-16
+ */
+@Log
+public class CachedArtifactHandler implements ArtifactHandler {
+
+    public static final int DEFAULT_CACHE_SIZE = 500;
+
+    public static final int DEFAULT_CACHE_SECONDS = 60;
+
+    public static final int DEFAULT_STALE_SECONDS = 600;
+
+    private static final int REFRESH_THREADS = 2;
+
+    private static final int QUEUE_SIZE = 256;
+
+    private static final int BATCH_THREADS = 4;
+
+    private static final ExpiringLruCache<ItemsKey, VersionIndex> ITEMS_CACHE = new ExpiringLruCache<>(
+            DEFAULT_CACHE_SIZE,
+            TimeUnit.SECONDS.toMillis(DEFAULT_CACHE_SECONDS),
+            TimeUnit.SECONDS.toMillis(DEFAULT_STALE_SECONDS));
+
+    private static final SingleFlight<ItemsKey, VersionIndex> ITEMS_FLIGHT = new SingleFlight<>();
+
+    /**
+     * 正在排队或者正在刷新的Key，避免重复提交
+     */
+    private static final Set<ItemsKey> REFRESHING = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 后台刷新线程池，队列满时丢弃刷新任务
+     */
+    private static final ThreadPoolExecutor REFRESHER = createExecutor(
+            REFRESH_THREADS, "nexus-version-refresh", new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * 批量查询线程池，队列满时由调用方线程执行
+     */
+    private static final ThreadPoolExecutor BATCH_EXECUTOR =
+            createExecutor(BATCH_THREADS, "nexus-version-batch", new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private final ArtifactHandler delegate;
+
+    public CachedArtifactHandler(ArtifactHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ListBoxModel getItems(NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
+        // 调用方会筛选返回的结果，每次返回新的列表
+        return getIndex(serverConfig, option, repository, limits).toListBoxModel();
+    }
+
+    /**
+     * 由被装饰的Handler在整个仓库中搜索包含关键字的版本（最多limits个），搜索结果按关键字缓存
+     */
+    @Override
+    public ListBoxModel searchItems(
+            NexusRepoServerConfig serverConfig, String option, String repository, int limits, String keyword) {
+        return getIndex(serverConfig, option, repository, limits, keyword).toListBoxModel();
+    }
+
+    /**
+     * 分页查询版本列表，版本列表或者关键字的搜索结果只查询一次并缓存
+     *
+     * @param keyword 关键字，在整个仓库中搜索包含关键字的版本，为空时不筛选
+     * @param offset 起始位置
+     * @param size   每页条数
+     */
+    public VersionIndex.Page getPage(
+            NexusRepoServerConfig serverConfig,
+            String option,
+            String repository,
+            int limits,
+            String keyword,
+            int offset,
+            int size) {
+        return getIndex(serverConfig, option, repository, limits, keyword).page(null, offset, size);
+    }
+
+    private VersionIndex getIndex(NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
+        return getIndex(serverConfig, option, repository, limits, null);
+    }
+
+    private VersionIndex getIndex(
+            NexusRepoServerConfig serverConfig, String option, String repository, int limits, String keyword) {
+        ItemsKey key = new ItemsKey(serverConfig.getServerId(), repository, option, limits, Util.fixEmpty(keyword));
+        ExpiringLruCache.Hit<VersionIndex> hit = ITEMS_CACHE.lookup(key);
+        if (hit == null) {
+            return load(key, serverConfig);
+        }
+        if (hit.isStale()) {
+            refreshAsync(key, serverConfig);
+        }
+        return hit.getValue();
+    }
+
+    /**
+     * 缓存命中时一次返回全部版本，否则逐页返回并在查询完成后写入缓存。
+     * 相同Key正在查询时等待查询结果，一次返回全部版本
+     */
+    @Override
+    public void streamItems(
+            NexusRepoServerConfig serverConfig,
+            String option,
+            String repository,
+            int limits,
+            Consumer<ListBoxModel> pageConsumer) {
+        ItemsKey key = new ItemsKey(serverConfig.getServerId(), repository, option, limits);
+        ExpiringLruCache.Hit<VersionIndex> hit = ITEMS_CACHE.lookup(key);
+        if (hit != null) {
+            if (hit.isStale()) {
+                refreshAsync(key, serverConfig);
+            }
+            pageConsumer.accept(hit.getValue().toListBoxModel());
+            return;
+        }
+        AtomicBoolean streamed = new AtomicBoolean();
+        VersionIndex index = ITEMS_FLIGHT.execute(key, () -> {
+            streamed.set(true);
+            ListBoxModel loaded = new ListBoxModel();
+            delegate.streamItems(serverConfig, option, repository, limits, page -> {
+                loaded.addAll(page);
+                pageConsumer.accept(page);
+            });
+            VersionIndex loadedIndex = VersionIndex.of(loaded);
+            ITEMS_CACHE.put(key, loadedIndex);
+            return loadedIndex;
+        });
+        if (!streamed.get()) {
+            pageConsumer.accept(index.toListBoxModel());
+        }
+    }
+
+    /**
+     * 并行查询多个option，单个option查询失败时记录日志并回调errorConsumer
+     */
+    @Override
+    public void streamItems(
+            NexusRepoServerConfig serverConfig,
+            List<String> options,
+            String repository,
+            int limits,
+            BiConsumer<String, ListBoxModel> pageConsumer,
+            BiConsumer<String, Throwable> errorConsumer) {
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        for (String option : options) {
+            futures.computeIfAbsent(option, k -> BATCH_EXECUTOR.submit(() -> streamItems(
+                    serverConfig, k, repository, limits, page -> pageConsumer.accept(k, page))));
+        }
+        try {
+            for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    log.log(Level.WARNING, "Stream version items error. option=" + entry.getKey(), e.getCause());
+                    errorConsumer.accept(entry.getKey(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.values().forEach(f -> f.cancel(true));
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 缓存中没有未过期的值时在后台加载
+     */
+    public void warm(NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
+        ItemsKey key = new ItemsKey(serverConfig.getServerId(), repository, option, limits);
+        if (ITEMS_CACHE.isEnabled() && !ITEMS_CACHE.isFresh(key)) {
+            refreshAsync(key, serverConfig);
+        }
+    }
+
+    private VersionIndex load(ItemsKey key, NexusRepoServerConfig serverConfig) {
+        return ITEMS_FLIGHT.execute(key, () -> {
+            VersionIndex loaded = VersionIndex.of(
+                    key.keyword == null
+                            ? delegate.getItems(serverConfig, key.option, key.repository, key.limits)
+                            : delegate.searchItems(serverConfig, key.option, key.repository, key.limits, key.keyword));
+            ITEMS_CACHE.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    private void refreshAsync(ItemsKey key, NexusRepoServerConfig serverConfig) {
+        if (!REFRESHING.add(key)) {
+            return;
+        }
+        try {
+            REFRESHER.execute(() -> {
+                try {
+                    load(key, serverConfig);
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "Refresh version items error. key=" + key, e);
+                } finally {
+                    REFRESHING.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REFRESHING.remove(key);
+            log.log(Level.FINE, "Refresh queue is full, skip refreshing. key={0}", key);
+        }
+    }
+
+    @Override
+    public GetLoginPasswordResult getLoginPassword(NexusRepoServerConfig serverConfig) {
+        return delegate.getLoginPassword(serverConfig);
+    }
+
+    @Override
+    public CreateImageRepositoryResult createImageRepository(
+            NexusRepoServerConfig serverConfig, String repo, boolean mutable) {
+        return delegate.createImageRepository(serverConfig, repo, mutable);
+    }
+
+    public static ExpiringLruCache<ItemsKey, VersionIndex> getItemsCache() {
+        return ITEMS_CACHE;
+    }
+
+    public static SingleFlight<ItemsKey, VersionIndex> getItemsFlight() {
+        return ITEMS_FLIGHT;
+    }
+
+    /**
+     * 修改缓存容量和过期时间
+     *
+     * @param maxSize      最大条目数
+     * @param seconds      过期时间，小于等于0时不缓存
+     * @param staleSeconds 过期后仍返回旧值并在后台刷新的时间
+     */
+    public static void configure(int maxSize, int seconds, int staleSeconds) {
+        ITEMS_CACHE.configure(
+                maxSize, TimeUnit.SECONDS.toMillis(seconds), TimeUnit.SECONDS.toMillis(Math.max(0, staleSeconds)));
+    }
+
+    public static void invalidate(String serverId) {
+        ITEMS_CACHE.invalidateIf(key -> Objects.equals(serverId, key.serverId));
+    }
+
+    public static void invalidateAll() {
+        ITEMS_CACHE.invalidateAll();
+    }
+
+    @Terminator
+    public static void shutdown() {
+        REFRESHER.shutdownNow();
+        BATCH_EXECUTOR.shutdownNow();
+    }
+
+    private static ThreadPoolExecutor createExecutor(
+            int threads, String threadPrefix, RejectedExecutionHandler rejectedHandler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                new NamingThreadFactory(new DaemonThreadFactory(), threadPrefix),
+                rejectedHandler);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 缓存Key
+     */
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    public static final class ItemsKey {
+        private final String serverId;
+        private final String repository;
+        private final String option;
+        private final int limits;
+        /**
+         * 搜索关键字，为null时表示全部版本
+         */
+        private final String keyword;
+
+        public ItemsKey(String serverId, String repository, String option, int limits) {
+            this(serverId, repository, option, limits, null);
+        }
+
+        public ItemsKey(String serverId, String repository, String option, int limits, String keyword) {
+            this.serverId = serverId;
+            this.repository = repository;
+            this.option = option;
+            this.limits = limits;
+            this.keyword = keyword;
+        }
+    }
+}
@@ -4,11 +4,12 @@ import com.amazonaws.auth.*;
 import com.amazonaws.services.ecr.AmazonECR;
 import com.amazonaws.services.ecr.AmazonECRClientBuilder;
 import com.amazonaws.services.ecr.model.*;
+import com.cloudbees.jenkins.plugins.awscredentials.AWSCredentialsImpl;
 import com.cloudbees.jenkins.plugins.awscredentials.AmazonWebServicesCredentials;
-import com.cloudbees.plugins.credentials.CredentialsProvider;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
 import hudson.Util;
 import hudson.util.ListBoxModel;
+import io.jenkins.plugins.nexus.config.CredentialsCache;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.model.dto.CreateImageRepositoryResult;
 import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
@@ -16,11 +17,12 @@ import io.jenkins.plugins.nexus.utils.Constants;
 import io.jenkins.plugins.nexus.utils.Utils;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
-import jenkins.model.Jenkins;
 import lombok.extern.java.Log;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.tools.ant.types.selectors.SelectorUtils;
 
@@ -29,8 +31,15 @@ public class ECRArtifactHandler implements ArtifactHandler {
 
     @Override
     public ListBoxModel getItems(NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
-        AmazonECR ecr = createECR(serverConfig);
+        EcrClientRegistry.PooledEcr pooled = acquireECR(serverConfig);
+        try {
+            return getItems(pooled.getClient(), option, limits);
+        } finally {
+            pooled.release();
+        }
+    }
 
+    private ListBoxModel getItems(AmazonECR ecr, String option, int limits) {
         ListBoxModel items = new ListBoxModel();
 
         String[] groupArtifactFilter = option.split(":");
@@ -91,9 +100,22 @@ public class ECRArtifactHandler implements ArtifactHandler {
 
     @Override
     public GetLoginPasswordResult getLoginPassword(NexusRepoServerConfig serverConfig) {
-        AmazonECR ecr = createECR(serverConfig);
-        GetAuthorizationTokenRequest request = new GetAuthorizationTokenRequest();
-        GetAuthorizationTokenResult token = ecr.getAuthorizationToken(request);
+        String fingerprint = fingerprintOf(findCredentials(serverConfig.getCredentialsId()));
+        return EcrTokenCache.get(
+                keyOf(serverConfig),
+                serverConfig.getServerUrl(),
+                fingerprint,
+                () -> requestToken(serverConfig, fingerprint));
+    }
+
+    private EcrTokenCache.Token requestToken(NexusRepoServerConfig serverConfig, String fingerprint) {
+        GetAuthorizationTokenResult token;
+        EcrClientRegistry.PooledEcr pooled = acquireECR(serverConfig);
+        try {
+            token = pooled.getClient().getAuthorizationToken(new GetAuthorizationTokenRequest());
+        } finally {
+            pooled.release();
+        }
         if (token.getAuthorizationData().size() != 1) {
             throw new RuntimeException("Did not get authorizationData from AWS");
         }
@@ -106,13 +128,25 @@ public class ECRArtifactHandler implements ArtifactHandler {
         }
         GetLoginPasswordResult result = new GetLoginPasswordResult(parts[0], parts[1]);
         result.setRepositoryUri(StringUtils.removeStart(authorizationData.getProxyEndpoint(), "https://"));
-        return result;
+        // 没有返回过期时间时按最短有效期1小时处理
+        long expiresAt = authorizationData.getExpiresAt() != null
+                ? authorizationData.getExpiresAt().getTime()
+                : System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        return new EcrTokenCache.Token(result, expiresAt, serverConfig.getServerUrl(), fingerprint);
     }
 
     @Override
     public CreateImageRepositoryResult createImageRepository(
             NexusRepoServerConfig serverConfig, String repo, boolean mutable) {
-        AmazonECR ecr = createECR(serverConfig);
+        EcrClientRegistry.PooledEcr pooled = acquireECR(serverConfig);
+        try {
+            return createImageRepository(pooled.getClient(), repo, mutable);
+        } finally {
+            pooled.release();
+        }
+    }
+
+    private CreateImageRepositoryResult createImageRepository(AmazonECR ecr, String repo, boolean mutable) {
         // Repository repository;
         CreateImageRepositoryResult result = new CreateImageRepositoryResult();
         try {
@@ -137,41 +171,111 @@ public class ECRArtifactHandler implements ArtifactHandler {
         return result;
     }
 
-    private AmazonECR createECR(NexusRepoServerConfig serverConfig) {
-        List<StandardUsernamePasswordCredentials> usernamePasswordCredentialsList =
-                CredentialsProvider.lookupCredentialsInItemGroup(
-                        StandardUsernamePasswordCredentials.class, Jenkins.get(), null, Collections.emptyList());
-        Optional<StandardUsernamePasswordCredentials> usernamePasswordCredentials =
-                usernamePasswordCredentialsList.stream()
-                        .filter(e -> Objects.equals(e.getId(), serverConfig.getCredentialsId()))
-                        .findFirst();
-        AWSCredentialsProvider awsCredentialsProvider = null;
-        if (usernamePasswordCredentials.isPresent()) {
-            StandardUsernamePasswordCredentials credentials = usernamePasswordCredentials.get();
-            AWSCredentials awsCredentials = new BasicAWSCredentials(
-                    credentials.getUsername(), credentials.getPassword().getPlainText());
-            awsCredentialsProvider = new AWSStaticCredentialsProvider(awsCredentials);
-        } else {
-            List<AmazonWebServicesCredentials> amazonWebServicesCredentialsList =
-                    CredentialsProvider.lookupCredentialsInItemGroup(
-                            AmazonWebServicesCredentials.class, Jenkins.get(), null, Collections.emptyList());
-            Optional<AmazonWebServicesCredentials> amazonWebServicesCredentials =
-                    amazonWebServicesCredentialsList.stream()
-                            .filter(e -> Objects.equals(e.getId(), serverConfig.getCredentialsId()))
-                            .findFirst();
-            if (amazonWebServicesCredentials.isPresent()) {
-                AmazonWebServicesCredentials credentials = amazonWebServicesCredentials.get();
-                AWSCredentials awsCredentials = credentials.getCredentials();
+    /**
+     * 获取共享的ECR客户端，调用方不能关闭，使用完后必须在finally中release
+     */
+    private EcrClientRegistry.PooledEcr acquireECR(NexusRepoServerConfig serverConfig) {
+        Object credentials = findCredentials(serverConfig.getCredentialsId());
+        String fingerprint = fingerprintOf(credentials);
+        return EcrClientRegistry.acquire(keyOf(serverConfig), serverConfig.getServerUrl(), fingerprint, () -> {
+            AWSCredentialsProvider awsCredentialsProvider = null;
+            if (credentials instanceof StandardUsernamePasswordCredentials) {
+                StandardUsernamePasswordCredentials usernamePasswordCredentials =
+                        (StandardUsernamePasswordCredentials) credentials;
+                AWSCredentials awsCredentials = new BasicAWSCredentials(
+                        usernamePasswordCredentials.getUsername(),
+                        usernamePasswordCredentials.getPassword().getPlainText());
                 awsCredentialsProvider = new AWSStaticCredentialsProvider(awsCredentials);
+            } else if (credentials instanceof AmazonWebServicesCredentials) {
+                awsCredentialsProvider = new CachingCredentialsProvider((AmazonWebServicesCredentials) credentials);
             }
+            AmazonECRClientBuilder amazonECRClientBuilder = AmazonECRClientBuilder.standard();
+            if (awsCredentialsProvider != null) {
+                amazonECRClientBuilder.withCredentials(awsCredentialsProvider);
+            }
+
+            amazonECRClientBuilder.withEndpointConfiguration(new AmazonECRClientBuilder.EndpointConfiguration(
+                    serverConfig.getServerUrl(), serverConfig.getRegion()));
+            return amazonECRClientBuilder.build();
+        });
+    }
+
+    /**
+     * 先按用户名密码凭据（AccessKey/SecretKey）查找，没有时查找AWS凭据
+     */
+    private static Object findCredentials(String credentialsId) {
+        StandardUsernamePasswordCredentials usernamePasswordCredentials =
+                CredentialsCache.find(StandardUsernamePasswordCredentials.class, credentialsId);
+        if (usernamePasswordCredentials != null) {
+            return usernamePasswordCredentials;
         }
-        AmazonECRClientBuilder amazonECRClientBuilder = AmazonECRClientBuilder.standard();
-        if (awsCredentialsProvider != null) {
-            amazonECRClientBuilder.withCredentials(awsCredentialsProvider);
+        return CredentialsCache.find(AmazonWebServicesCredentials.class, credentialsId);
+    }
+
+    /**
+     * 凭据内容的摘要。凭据缓存过期重建后凭据对象会变化，按内容比较才能继续复用客户端；只保存摘要，不保存密钥。
+     * AWS凭据只读取配置的AccessKey、SecretKey和IAM Role，不调用getCredentials，避免触发AssumeRole；
+     * 无法读取内容的其它凭据实现按类型和ID比较
+     */
+    static String fingerprintOf(Object credentials) {
+        if (credentials == null) {
+            return null;
+        }
+        StringJoiner content = new StringJoiner("\n");
+        content.add(credentials.getClass().getName());
+        if (credentials instanceof StandardUsernamePasswordCredentials) {
+            StandardUsernamePasswordCredentials c = (StandardUsernamePasswordCredentials) credentials;
+            content.add(c.getId()).add(c.getUsername()).add(c.getPassword().getPlainText());
+        } else if (credentials instanceof AWSCredentialsImpl) {
+            AWSCredentialsImpl c = (AWSCredentialsImpl) credentials;
+            content.add(c.getId())
+                    .add(Objects.toString(c.getAccessKey(), ""))
+                    .add(c.getSecretKey() == null ? "" : c.getSecretKey().getPlainText())
+                    .add(Objects.toString(c.getIamRoleArn(), ""))
+                    .add(Objects.toString(c.getIamMfaSerialNumber(), ""));
+        } else if (credentials instanceof AmazonWebServicesCredentials) {
+            content.add(((AmazonWebServicesCredentials) credentials).getId());
         }
+        return DigestUtils.sha256Hex(content.toString());
+    }
+
+    private static EcrClientRegistry.Key keyOf(NexusRepoServerConfig serverConfig) {
+        return new EcrClientRegistry.Key(
+                serverConfig.getServerId(), serverConfig.getRegion(), serverConfig.getCredentialsId());
+    }
+
+    /**
+     * 客户端会长期复用，不能只在创建时读取一次凭据：配置了IAM Role时得到的是会过期的临时凭据。
+     * 每次请求都调用插件的getCredentials又会重复AssumeRole，所以缓存10分钟（临时凭据最短有效期15分钟）
+     */
+    private static final class CachingCredentialsProvider implements AWSCredentialsProvider {
+
+        private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+        private final AWSCredentialsProvider delegate;
 
-        amazonECRClientBuilder.withEndpointConfiguration(new AmazonECRClientBuilder.EndpointConfiguration(
-                serverConfig.getServerUrl(), serverConfig.getRegion()));
-        return amazonECRClientBuilder.build();
+        private AWSCredentials credentials;
+
+        private long expiresAt;
+
+        private CachingCredentialsProvider(AWSCredentialsProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized AWSCredentials getCredentials() {
+            long now = System.currentTimeMillis();
+            if (credentials == null || now >= expiresAt) {
+                credentials = delegate.getCredentials();
+                expiresAt = now + TTL_MILLIS;
+            }
+            return credentials;
+        }
+
+        @Override
+        public synchronized void refresh() {
+            delegate.refresh();
+            credentials = null;
+        }
     }
 }
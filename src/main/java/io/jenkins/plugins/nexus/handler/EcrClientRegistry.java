@@ -0,0 +1,182 @@
+package io.jenkins.plugins.nexus.handler;
+
+import com.amazonaws.services.ecr.AmazonECR;
+import hudson.init.Terminator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.java.Log;
+
+/**
+ * JVM级别的ECR客户端注册表，按 (serverId, region, credentialsId) 复用客户端，避免每次请求都重新创建连接池和签名器。
+ * 服务地址或凭据内容变化时替换客户端，没有请求超过10分钟的客户端在下次获取时移除。
+ * 和 {@link io.jenkins.plugins.nexus.utils.HttpClientRegistry} 一样，被移除的客户端等正在执行的请求全部结束后才关闭
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-25
+ */
+@Log
+public final class EcrClientRegistry {
+
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Map<Key, PooledEcr> CLIENTS = new ConcurrentHashMap<>();
+
+    private EcrClientRegistry() {}
+
+    /**
+     * 获取共享客户端并登记一个正在执行的请求，请求结束后必须调用 {@link PooledEcr#release()}。
+     * 调用方不能关闭返回的客户端
+     *
+     * @param serverUrl   ECR服务地址，变化时替换客户端
+     * @param fingerprint 凭据内容的摘要，变化时替换客户端；凭据缓存重建但内容不变时继续复用
+     * @param factory     创建客户端
+     */
+    static PooledEcr acquire(Key key, String serverUrl, String fingerprint, Supplier<AmazonECR> factory) {
+        evictIdle();
+        while (true) {
+            PooledEcr pooled = get(key, serverUrl, fingerprint, factory);
+            if (pooled.tryAcquire()) {
+                return pooled;
+            }
+            // 刚好被替换，重新获取
+        }
+    }
+
+    private static PooledEcr get(Key key, String serverUrl, String fingerprint, Supplier<AmazonECR> factory) {
+        return CLIENTS.compute(key, (k, old) -> {
+            if (old != null
+                    && Objects.equals(old.serverUrl, serverUrl)
+                    && Objects.equals(old.fingerprint, fingerprint)) {
+                return old;
+            }
+            if (old != null) {
+                old.retire(k);
+            }
+            log.log(Level.FINE, "Create ECR client. key={0}", k);
+            return new PooledEcr(factory.get(), serverUrl, fingerprint);
+        });
+    }
+
+    public static void invalidateAll() {
+        List<Key> keys = new ArrayList<>(CLIENTS.keySet());
+        keys.forEach(key -> {
+            PooledEcr pooled = CLIENTS.remove(key);
+            if (pooled != null) {
+                pooled.retire(key);
+            }
+        });
+    }
+
+    @Terminator
+    public static void shutdown() {
+        invalidateAll();
+    }
+
+    private static void evictIdle() {
+        long now = System.currentTimeMillis();
+        CLIENTS.forEach((key, pooled) -> {
+            if (pooled.isIdle(now) && CLIENTS.remove(key, pooled)) {
+                pooled.retire(key);
+            }
+        });
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    static final class Key {
+        private final String serverId;
+
+        private final String region;
+
+        private final String credentialsId;
+
+        Key(String serverId, String region, String credentialsId) {
+            this.serverId = serverId;
+            this.region = region;
+            this.credentialsId = credentialsId;
+        }
+    }
+
+    /**
+     * 共享的ECR客户端以及正在执行的请求数
+     */
+    static final class PooledEcr {
+        private final AmazonECR client;
+
+        private final String serverUrl;
+
+        private final String fingerprint;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile Key retiredKey;
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledEcr(AmazonECR client, String serverUrl, String fingerprint) {
+            this.client = client;
+            this.serverUrl = serverUrl;
+            this.fingerprint = fingerprint;
+        }
+
+        AmazonECR getClient() {
+            return client;
+        }
+
+        /**
+         * 请求结束，客户端已被移除且没有其它请求时关闭
+         */
+        void release() {
+            lastUsed = System.currentTimeMillis();
+            if (inFlight.decrementAndGet() == 0 && retiredKey != null) {
+                close();
+            }
+        }
+
+        private boolean tryAcquire() {
+            inFlight.incrementAndGet();
+            lastUsed = System.currentTimeMillis();
+            if (retiredKey == null) {
+                return true;
+            }
+            release();
+            return false;
+        }
+
+        /**
+         * 有正在执行的请求时不算空闲，分页较多的listImages可能超过空闲时间
+         */
+        private boolean isIdle(long now) {
+            return inFlight.get() == 0 && now - lastUsed > IDLE_MILLIS;
+        }
+
+        /**
+         * 不再分配新的请求，没有正在执行的请求时立即关闭
+         */
+        private void retire(Key key) {
+            retiredKey = key;
+            if (inFlight.get() == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                log.log(Level.FINE, "Close ECR client. key={0}", retiredKey);
+                client.shutdown();
+            }
+        }
+    }
+}
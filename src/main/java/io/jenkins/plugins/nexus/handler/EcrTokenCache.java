@@ -0,0 +1,160 @@
+package io.jenkins.plugins.nexus.handler;
+
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
+import io.jenkins.plugins.nexus.utils.SingleFlight;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
+
+/**
+ * ECR登录令牌缓存，按 (serverId, region, credentialsId) 缓存解码后的用户名和密码。
+ * 令牌有效期12小时，过期前5分钟不再使用；过期前1小时内被使用时在后台刷新，构建步骤不需要等待。
+ * 凭据内容变化（按凭据内容的摘要比较）或者服务地址变化时不再使用之前的令牌。
+ * 并发的构建步骤共享同一个刷新请求。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-26
+ */
+@Log
+public final class EcrTokenCache {
+
+    /**
+     * 距离过期不足该时间的令牌不再使用
+     */
+    private static final long EXPIRY_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * 距离过期不足该时间时在后台刷新
+     */
+    private static final long REFRESH_AHEAD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final Map<EcrClientRegistry.Key, Token> TOKENS = new ConcurrentHashMap<>();
+
+    private static final SingleFlight<EcrClientRegistry.Key, Token> FLIGHT = new SingleFlight<>();
+
+    /**
+     * 正在排队或者正在刷新的Key，避免重复提交
+     */
+    private static final Set<EcrClientRegistry.Key> REFRESHING = ConcurrentHashMap.newKeySet();
+
+    private static final ThreadPoolExecutor REFRESHER = createExecutor();
+
+    private EcrTokenCache() {}
+
+    /**
+     * 获取登录令牌，没有可用的缓存时通过loader向ECR申请
+     *
+     * @param serverUrl   ECR服务地址，变化后不再使用之前的令牌
+     * @param fingerprint 凭据内容的摘要，变化后不再使用之前的令牌
+     */
+    static GetLoginPasswordResult get(
+            EcrClientRegistry.Key key, String serverUrl, String fingerprint, Supplier<Token> loader) {
+        long now = System.currentTimeMillis();
+        Token token = TOKENS.get(key);
+        if (token != null
+                && Objects.equals(token.serverUrl, serverUrl)
+                && Objects.equals(token.fingerprint, fingerprint)
+                && now < token.expiresAt - EXPIRY_MARGIN_MILLIS) {
+            if (now >= token.expiresAt - REFRESH_AHEAD_MILLIS) {
+                refreshAsync(key, loader);
+            }
+            return token.copyResult();
+        }
+        return FLIGHT.execute(key, () -> load(key, loader)).copyResult();
+    }
+
+    public static void invalidateAll() {
+        TOKENS.clear();
+    }
+
+    @Terminator
+    public static void shutdown() {
+        REFRESHER.shutdownNow();
+    }
+
+    private static Token load(EcrClientRegistry.Key key, Supplier<Token> loader) {
+        Token token = loader.get();
+        TOKENS.put(key, token);
+        log.log(Level.FINE, "Load ECR token. key={0}, expiresAt={1}", new Object[] {key, token.expiresAt});
+        return token;
+    }
+
+    private static void refreshAsync(EcrClientRegistry.Key key, Supplier<Token> loader) {
+        if (!REFRESHING.add(key)) {
+            return;
+        }
+        try {
+            REFRESHER.execute(() -> {
+                try {
+                    FLIGHT.execute(key, () -> load(key, loader));
+                } catch (RuntimeException e) {
+                    // 旧令牌在过期前仍然可用
+                    log.log(Level.WARNING, "Refresh ECR token error. key=" + key, e);
+                } finally {
+                    REFRESHING.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REFRESHING.remove(key);
+            log.log(Level.FINE, "Refresh queue is full, skip refreshing. key={0}", key);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64),
+                new NamingThreadFactory(new DaemonThreadFactory(), "nexus-ecr-token-refresh"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 解码后的令牌
+     */
+    static final class Token {
+        private final GetLoginPasswordResult result;
+
+        private final long expiresAt;
+
+        private final String serverUrl;
+
+        private final String fingerprint;
+
+        /**
+         * @param expiresAt   过期时间，毫秒时间戳
+         * @param serverUrl   申请令牌时的ECR服务地址
+         * @param fingerprint 申请令牌时使用的凭据内容的摘要
+         */
+        Token(GetLoginPasswordResult result, long expiresAt, String serverUrl, String fingerprint) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+            this.serverUrl = serverUrl;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * 返回副本，调用方修改结果不影响缓存
+         */
+        private GetLoginPasswordResult copyResult() {
+            GetLoginPasswordResult copy = new GetLoginPasswordResult(result.getUsername(), result.getPassword());
+            copy.setRepositoryUri(result.getRepositoryUri());
+            return copy;
+        }
+    }
+}
@@ -8,26 +8,67 @@ import hudson.util.Secret;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
 import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
 import io.jenkins.plugins.nexus.model.req.NexusSearchComponentsReq;
-import io.jenkins.plugins.nexus.model.resp.NexusComponentDetails;
 import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
-import io.jenkins.plugins.nexus.model.resp.NexusSearchComponentsResp;
 import io.jenkins.plugins.nexus.model.resp.SearchDockerTagsResp;
 import io.jenkins.plugins.nexus.utils.Constants;
+import io.jenkins.plugins.nexus.utils.NexusClientException;
 import io.jenkins.plugins.nexus.utils.NexusRepositoryClient;
+import io.jenkins.plugins.nexus.utils.NexusRepositoryFormat;
+import io.jenkins.plugins.nexus.utils.NexusRepositoryType;
+import io.jenkins.plugins.nexus.utils.RepositoryDetailsCache;
 import io.jenkins.plugins.nexus.utils.Utils;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.regex.Pattern;
-import org.apache.commons.collections.CollectionUtils;
+import lombok.extern.java.Log;
 import org.apache.commons.lang.StringUtils;
 import org.apache.tools.ant.types.selectors.SelectorUtils;
 
+@Log
 public class NexusArtifactHandler implements ArtifactHandler {
+
+    private static final String VERSION_POLICY_RELEASE = "RELEASE";
+
     @Override
     public ListBoxModel getItems(NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
         ListBoxModel items = new ListBoxModel();
+        streamItems(serverConfig, option, repository, limits, items::addAll);
+        return items;
+    }
+
+    @Override
+    public void streamItems(
+            NexusRepoServerConfig serverConfig,
+            String option,
+            String repository,
+            int limits,
+            Consumer<ListBoxModel> pageConsumer) {
+        searchVersions(serverConfig, option, repository, limits, null, pageConsumer);
+    }
+
+    /**
+     * 在整个仓库中查询包含关键字的版本。包含匹配无法转换为Nexus支持的前缀通配符，所以在客户端筛选
+     */
+    @Override
+    public ListBoxModel searchItems(
+            NexusRepoServerConfig serverConfig, String option, String repository, int limits, String keyword) {
+        ListBoxModel items = new ListBoxModel();
+        searchVersions(serverConfig, option, repository, limits, Util.fixEmpty(keyword), items::addAll);
+        return items;
+    }
+
+    private void searchVersions(
+            NexusRepoServerConfig serverConfig,
+            String option,
+            String repository,
+            int limits,
+            String keyword,
+            Consumer<ListBoxModel> pageConsumer) {
         NexusRepositoryClient client = new NexusRepositoryClient(serverConfig);
 
         String[] groupArtifactFilter = option.split(":");
@@ -35,6 +76,7 @@ public class NexusArtifactHandler implements ArtifactHandler {
         final String artifactId = groupArtifactFilter[1];
         final String filter = groupArtifactFilter.length > 2 ? Util.fixEmptyAndTrim(groupArtifactFilter[2]) : null;
         Function<String, Boolean> filterFunc = s -> filter == null || SelectorUtils.match(filter, s);
+        Function<String, Boolean> keywordFunc = s -> keyword == null || s.contains(keyword);
 
         NexusSearchComponentsReq.NexusSearchComponentsReqBuilder reqBuilder =
                 NexusSearchComponentsReq.builder().groupId(groupId).artifactId(artifactId);
@@ -42,46 +84,121 @@ public class NexusArtifactHandler implements ArtifactHandler {
         if (client.isDocker()) {
             Pattern cosignSignTagPattern = Pattern.compile(Constants.IMAGE_TAG_SIG_REGEX);
             SearchDockerTagsResp resp = client.searchDockerTags(reqBuilder.build());
+            ListBoxModel items = new ListBoxModel();
             String baseUrl = StringUtils.removeStart(client.getUrl(), "https://");
             baseUrl = StringUtils.removeStart(baseUrl, "http://");
             for (int i = resp.getTags().size() - 1; i >= 0; i--) {
                 String tag = resp.getTags().get(i);
                 if ((!Utils.isMatch(cosignSignTagPattern, tag)) && filterFunc.apply(tag)) {
                     String image = String.format("%s/%s:%s", baseUrl, resp.getName(), tag);
-                    items.add(image, image);
+                    if (keywordFunc.apply(image)) {
+                        items.add(image, image);
+                    }
                 }
             }
+            pageConsumer.accept(items);
         } else {
             Pattern cosignSignTagPattern = Pattern.compile(Constants.RAW_FILE_SIG_REGEX);
-            NexusRepositoryDetails nxRepo = client.getRepositoryDetails(repository);
+            NexusRepositoryDetails nxRepo = RepositoryDetailsCache.get(client, repository);
+            if (isMavenMetadataSupported(serverConfig, nxRepo)) {
+                List<String> versions = getMavenMetadataVersions(client, nxRepo, groupId, artifactId);
+                if (versions != null) {
+                    // maven-metadata.xml中按发布顺序排列，倒序后最新的版本在前
+                    ListBoxModel items = new ListBoxModel();
+                    for (int i = versions.size() - 1; i >= 0 && items.size() < limits; i--) {
+                        String version = versions.get(i);
+                        String value = String.format("%s:%s:%s", groupId, artifactId, version);
+                        if (filterFunc.apply(version) && keywordFunc.apply(value)) {
+                            items.add(value, value);
+                        }
+                    }
+                    pageConsumer.accept(items);
+                    return;
+                }
+            }
+            if (NexusRepositoryFormat.maven2.matches(nxRepo.getFormat())) {
+                reqBuilder.version(versionTerm(filter));
+            }
             int loopNum = 0;
             String continuationToken = null;
             Set<String> versionSet = new LinkedHashSet<>();
             while (loopNum < 20 && versionSet.size() < limits) {
                 reqBuilder.continuationToken(continuationToken);
-                NexusSearchComponentsResp resp = client.searchComponents(nxRepo, reqBuilder.build());
-                if (CollectionUtils.isEmpty(resp.getItems())) {
-                    break;
-                }
-                for (NexusComponentDetails c : resp.getItems()) {
+                // 每一页只回调新增的版本，版本数达到上限后不再解析剩余的结果
+                ListBoxModel page = new ListBoxModel();
+                continuationToken = client.searchComponents(nxRepo, reqBuilder.build(), c -> {
                     if (Utils.isMatch(cosignSignTagPattern, c.getName())) {
-                        continue;
+                        return true;
                     }
                     String version = c.version(groupId, artifactId);
                     if (Objects.nonNull(version) && filterFunc.apply(version)) {
-                        versionSet.add(String.format("%s:%s:%s", groupId, artifactId, version));
+                        String value = String.format("%s:%s:%s", groupId, artifactId, version);
+                        if (keywordFunc.apply(value) && versionSet.add(value)) {
+                            page.add(value, value);
+                        }
                     }
+                    return versionSet.size() < limits;
+                });
+                if (!page.isEmpty()) {
+                    pageConsumer.accept(page);
                 }
-                if (StringUtils.isBlank(resp.getContinuationToken())) {
+                if (StringUtils.isBlank(continuationToken)) {
                     break;
                 }
-                continuationToken = resp.getContinuationToken();
                 loopNum++;
             }
-            versionSet.forEach(e -> items.add(e, e));
         }
+    }
 
-        return items;
+    /**
+     * 版本策略为RELEASE的maven2 hosted仓库优先读取 maven-metadata.xml。
+     * SNAPSHOT和MIXED仓库的元数据中是快照的基础版本（例如 1.0-SNAPSHOT），与搜索接口返回的版本不一致；
+     * group仓库无法确定成员仓库的版本策略，proxy仓库的元数据可能不是最新的，都使用搜索接口
+     */
+    static boolean isMavenMetadataSupported(NexusRepoServerConfig serverConfig, NexusRepositoryDetails nxRepo) {
+        return !serverConfig.isSearchVersionsOnly()
+                && NexusRepositoryFormat.maven2.matches(nxRepo.getFormat())
+                && NexusRepositoryType.hosted.name().equals(nxRepo.getType())
+                && nxRepo.getMaven() != null
+                && VERSION_POLICY_RELEASE.equals(nxRepo.getMaven().getVersionPolicy());
+    }
+
+    /**
+     * 读取 maven-metadata.xml 中的版本列表，文件不存在或者读取失败时返回null，改为使用搜索接口
+     */
+    private static List<String> getMavenMetadataVersions(
+            NexusRepositoryClient client, NexusRepositoryDetails nxRepo, String groupId, String artifactId) {
+        try {
+            List<String> versions = client.getMavenMetadataVersions(nxRepo, groupId, artifactId);
+            if (versions == null) {
+                log.log(
+                        Level.FINE,
+                        "No maven-metadata.xml, fallback to search. repository={0}, artifact={1}:{2}",
+                        new Object[] {nxRepo.getName(), groupId, artifactId});
+            }
+            return versions;
+        } catch (NexusClientException e) {
+            log.log(
+                    Level.WARNING,
+                    "Read maven-metadata.xml error, fallback to search. repository=" + nxRepo.getName(),
+                    e);
+            return null;
+        }
+    }
+
+    /**
+     * 转换为Nexus搜索接口的版本号条件，只转换精确版本和末尾的前缀通配符（例如 1.2.*）。
+     * 开头或中间的通配符在部分Nexus版本中会被拒绝或者只返回部分结果，这时返回null，在客户端按过滤条件筛选
+     */
+    static String versionTerm(String filter) {
+        if (filter == null) {
+            return null;
+        }
+        String prefix = StringUtils.removeEnd(filter, "*");
+        if (prefix.isEmpty() || StringUtils.containsAny(prefix, "*?")) {
+            return null;
+        }
+        return filter;
     }
 
     @Override
@@ -0,0 +1,109 @@
+package io.jenkins.plugins.nexus.handler;
+
+import hudson.util.ListBoxModel;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * 版本列表索引，按原顺序保存版本，支持按关键字筛选（名称和值都包含关键字）和分页。
+ * 只保存字符串数组，版本很多时比 {@link ListBoxModel} 占用更少的内存。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-19
+ */
+public final class VersionIndex {
+
+    private static final VersionIndex EMPTY = new VersionIndex(new String[0], new String[0]);
+
+    private final String[] names;
+
+    private final String[] values;
+
+    private VersionIndex(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    public static VersionIndex of(ListBoxModel items) {
+        if (items == null || items.isEmpty()) {
+            return EMPTY;
+        }
+        String[] names = new String[items.size()];
+        String[] values = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            ListBoxModel.Option item = items.get(i);
+            values[i] = item.value;
+            // 名称与值相同时共用同一个字符串
+            names[i] = Objects.equals(item.name, item.value) ? item.value : item.name;
+        }
+        return new VersionIndex(names, values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public ListBoxModel toListBoxModel() {
+        ListBoxModel items = new ListBoxModel(values.length);
+        for (int i = 0; i < values.length; i++) {
+            items.add(names[i], values[i]);
+        }
+        return items;
+    }
+
+    /**
+     * 分页查询，结果保持原顺序
+     *
+     * @param keyword 关键字，为空时不筛选
+     * @param offset  起始位置
+     * @param limit   最大条数
+     */
+    public Page page(String keyword, int offset, int limit) {
+        int[] matches = StringUtils.isEmpty(keyword) ? null : match(keyword);
+        int total = matches == null ? values.length : matches.length;
+        int from = Math.min(Math.max(0, offset), total);
+        int to = (int) Math.min(total, (long) from + Math.max(0, limit));
+        ListBoxModel items = new ListBoxModel(to - from);
+        for (int i = from; i < to; i++) {
+            int pos = matches == null ? i : matches[i];
+            items.add(names[pos], values[pos]);
+        }
+        return new Page(total, from, items);
+    }
+
+    /**
+     * 返回名称和值都包含关键字的下标
+     */
+    private int[] match(String keyword) {
+        return IntStream.range(0, values.length)
+                .filter(i -> values[i].contains(keyword) && names[i].contains(keyword))
+                .toArray();
+    }
+
+    /**
+     * 分页查询结果
+     */
+    @Getter
+    public static final class Page {
+        /**
+         * 匹配的总条数
+         */
+        private final int total;
+
+        private final int offset;
+
+        private final ListBoxModel items;
+
+        private Page(int total, int offset, ListBoxModel items) {
+            this.total = total;
+            this.offset = offset;
+            this.items = items;
+        }
+
+        public boolean hasMore() {
+            return offset + items.size() < total;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package io.jenkins.plugins.nexus.model.dto;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -12,4 +15,66 @@ public class NexusArtifactDownloadResult implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private long spendTime;
+
+    private List<FileResult> files = new ArrayList<>();
+
+    public long getTotalBytes() {
+        return files.stream().mapToLong(FileResult::getBytes).sum();
+    }
+
+    /**
+     * 整体下载速度，单位 bytes/s
+     */
+    public long getBytesPerSecond() {
+        return FileResult.bytesPerSecond(getTotalBytes(), spendTime);
+    }
+
+    public List<FileResult> getFailedFiles() {
+        return files.stream().filter(FileResult::isFailed).collect(Collectors.toList());
+    }
+
+    @Setter
+    @Getter
+    @ToString
+    public static class FileResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String filePath;
+        private long bytes;
+        private long spendTime;
+        private String error;
+        /**
+         * 是否从本地缓存获取
+         */
+        private boolean cached;
+        /**
+         * 本地文件未变化，没有重新下载
+         */
+        private boolean notModified;
+        /**
+         * 校验通过的文件摘要，格式为 algorithm:hex
+         */
+        private String checksum;
+
+        public FileResult() {}
+
+        public FileResult(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        /**
+         * 单个文件下载速度，单位 bytes/s
+         */
+        public long getBytesPerSecond() {
+            return bytesPerSecond(bytes, spendTime);
+        }
+
+        static long bytesPerSecond(long bytes, long millis) {
+            return millis <= 0 ? bytes : bytes * 1000 / millis;
+        }
+    }
 }
@@ -15,6 +15,28 @@ public class NexusDownloadInfo implements Serializable {
 
     private String filePath;
 
+    /**
+     * 文件大小，未知时为null
+     */
+    private Long fileSize;
+
+    /**
+     * 缓存Key，为空时不使用缓存
+     */
+    private String cacheKey;
+
+    /**
+     * Nexus Asset的最后修改时间
+     */
+    private String lastModified;
+
+    /**
+     * Nexus Asset的摘要，用于校验下载的文件
+     */
+    private String sha1;
+
+    private String sha256;
+
     public NexusDownloadInfo() {}
 
     public NexusDownloadInfo(String downloadUrl, String filePath) {
@@ -0,0 +1,60 @@
+package io.jenkins.plugins.nexus.model.dto;
+
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 下载选项
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+@Setter
+@Getter
+@ToString
+public class NexusDownloadOptions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 并行下载的线程数
+     */
+    private int threads = 1;
+    /**
+     * 任意文件下载失败时立即停止，否则下载完所有文件后汇总错误
+     */
+    private boolean failFast = true;
+    /**
+     * 下载失败的重试次数，重试时断点续传
+     */
+    private int retries = 2;
+    /**
+     * 文件大小超过该值时分段并发下载，单位字节，小于等于0表示不分段
+     */
+    private long splitThreshold;
+    /**
+     * 分段数
+     */
+    private int splitParts = 4;
+    /**
+     * Agent本地缓存目录，为空时不使用缓存
+     */
+    private String cacheDir;
+    /**
+     * 缓存容量，单位字节
+     */
+    private long cacheMaxSize;
+    /**
+     * 使用硬链接代替复制把缓存文件放到工作空间，只对有摘要的Asset生效
+     */
+    private boolean cacheHardLink;
+    /**
+     * 本地文件已存在时使用条件请求校验是否变化，未变化时不重新下载
+     */
+    private boolean revalidate;
+    /**
+     * 校验信息目录，为空时不校验
+     */
+    private String validatorsDir;
+}
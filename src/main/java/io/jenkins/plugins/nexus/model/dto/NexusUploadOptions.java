@@ -0,0 +1,36 @@
+package io.jenkins.plugins.nexus.model.dto;
+
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 上传选项
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-15
+ */
+@Setter
+@Getter
+@ToString
+public class NexusUploadOptions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 并行上传的线程数，每个线程上传一个批次
+     */
+    private int threads = 1;
+    /**
+     * 每个批次上传失败的重试次数
+     */
+    private int retries = 2;
+    /**
+     * raw仓库直接PUT上传文件，不使用组件上传接口
+     */
+    private boolean rawPut;
+    /**
+     * 跳过与仓库中已有Asset内容相同的文件
+     */
+    private boolean skipUnchanged;
+}
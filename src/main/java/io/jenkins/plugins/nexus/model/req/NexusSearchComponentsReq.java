@@ -19,5 +19,10 @@ public class NexusSearchComponentsReq implements Serializable {
 
     private String continuationToken;
 
+    /**
+     * 版本号，只使用精确版本或者末尾的 * 前缀通配符，只用于maven2仓库
+     */
+    private String version;
+
     private boolean onlyArtifactId;
 }
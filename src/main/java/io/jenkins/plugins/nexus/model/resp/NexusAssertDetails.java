@@ -1,6 +1,7 @@
 package io.jenkins.plugins.nexus.model.resp;
 
 import java.io.Serializable;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -24,4 +25,12 @@ public class NexusAssertDetails implements Serializable {
     private String contentType;
     private String lastModified;
     private Long fileSize;
+    /**
+     * 文件摘要，key为算法名称：sha1、sha256、sha512、md5
+     */
+    private Map<String, String> checksum;
+
+    public String checksum(String algorithm) {
+        return checksum == null ? null : checksum.get(algorithm);
+    }
 }
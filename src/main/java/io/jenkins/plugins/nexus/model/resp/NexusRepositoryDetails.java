@@ -22,4 +22,22 @@ public class NexusRepositoryDetails implements Serializable {
     private String url;
     private String type;
     private Map<String, Object> attributes;
+    /**
+     * maven2仓库的属性，只有hosted仓库会查询
+     */
+    private Maven maven;
+
+    @Setter
+    @Getter
+    @ToString
+    public static class Maven implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 版本策略：RELEASE、SNAPSHOT或者MIXED
+         */
+        private String versionPolicy;
+
+        private String layoutPolicy;
+    }
 }
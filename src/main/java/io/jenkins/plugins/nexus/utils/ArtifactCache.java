@@ -0,0 +1,267 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.extern.java.Log;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Agent本地的制品缓存，按缓存Key的摘要存储文件，超过容量时按最近访问时间淘汰。
+ * 访问时间和总大小记录在内存索引中，不修改缓存文件的修改时间（硬链接到工作空间的文件共用同一个inode）；
+ * 首次使用时扫描一次缓存目录，以文件修改时间作为初始访问时间。
+ * 缓存文件设置为只读，避免通过硬链接修改工作空间中的文件时破坏缓存；只读可以被构建步骤取消，
+ * 所以只有能按摘要校验每次命中的文件才使用硬链接。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-13
+ */
+@Log
+public final class ArtifactCache {
+
+    private static final Map<Path, ArtifactCache> CACHES = new ConcurrentHashMap<>();
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    @Getter
+    private final Path root;
+
+    @Getter
+    private volatile long maxSize;
+
+    /**
+     * 缓存文件索引，由this保护
+     */
+    private final Map<Path, Entry> index = new HashMap<>();
+
+    private long totalSize;
+
+    private boolean loaded;
+
+    private ArtifactCache(Path root, long maxSize) {
+        this.root = root;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 获取同一目录共享的缓存实例
+     *
+     * @param dir     缓存目录
+     * @param maxSize 缓存容量，单位字节
+     */
+    public static ArtifactCache of(File dir, long maxSize) {
+        ArtifactCache cache =
+                CACHES.computeIfAbsent(dir.toPath().toAbsolutePath().normalize(), p -> new ArtifactCache(p, maxSize));
+        cache.maxSize = maxSize;
+        return cache;
+    }
+
+    /**
+     * 从缓存中取出文件放到目标位置。有摘要时先校验缓存文件，不一致时删除缓存并按未命中处理
+     *
+     * @param hardLink 使用硬链接，没有摘要时无法发现通过链接被修改的缓存，仍然复制
+     * @param checksum 期望的摘要，为null时不校验
+     * @return 命中缓存时返回文件大小，未命中返回-1
+     */
+    public long fetch(String key, File target, boolean hardLink, ChecksumDigest checksum) throws IOException {
+        Path cached = pathOf(key);
+        if (!Files.isRegularFile(cached)) {
+            return -1;
+        }
+        try {
+            if (checksum != null && !matches(cached, checksum)) {
+                log.log(Level.WARNING, "Cached artifact checksum mismatch, evict it. path={0}", cached);
+                remove(cached);
+                return -1;
+            }
+            Path targetPath = target.toPath();
+            Files.createDirectories(targetPath.toAbsolutePath().getParent());
+            Files.deleteIfExists(targetPath);
+            if (!hardLink || checksum == null || !link(cached, targetPath)) {
+                Files.copy(cached, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                // 复制的文件不需要保持只读
+                target.setWritable(true, true);
+            }
+            touch(cached);
+            return Files.size(targetPath);
+        } catch (NoSuchFileException e) {
+            // 被并发淘汰
+            return -1;
+        }
+    }
+
+    /**
+     * 将下载好的文件放入缓存
+     */
+    public void store(String key, File source) throws IOException {
+        Path cached = pathOf(key);
+        if (Files.isRegularFile(cached)) {
+            return;
+        }
+        Files.createDirectories(cached.getParent());
+        Path tmp = Files.createTempFile(cached.getParent(), cached.getFileName().toString(), TMP_SUFFIX);
+        try {
+            Files.copy(source.toPath(), tmp, StandardCopyOption.REPLACE_EXISTING);
+            tmp.toFile().setReadOnly();
+            try {
+                Files.move(tmp, cached, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING);
+            }
+            added(cached, Files.size(cached));
+        } catch (FileAlreadyExistsException e) {
+            // 其它构建已经放入缓存
+        } finally {
+            deleteFile(tmp);
+        }
+        evict();
+    }
+
+    /**
+     * 缓存总大小超过容量时，删除最久未访问的文件
+     */
+    public synchronized void evict() throws IOException {
+        load();
+        if (totalSize <= maxSize) {
+            return;
+        }
+        List<Map.Entry<Path, Entry>> entries = new ArrayList<>(index.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<Path, Entry> entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            try {
+                deleteFile(entry.getKey());
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Evict cached artifact error. path=" + entry.getKey(), e);
+                continue;
+            }
+            index.remove(entry.getKey());
+            totalSize -= entry.getValue().size;
+            log.log(Level.FINE, "Evict cached artifact. path={0}", entry.getKey());
+        }
+    }
+
+    /**
+     * 缓存文件的总大小
+     */
+    public synchronized long getTotalSize() throws IOException {
+        load();
+        return totalSize;
+    }
+
+    private static boolean matches(Path cached, ChecksumDigest checksum) throws IOException {
+        checksum.reset();
+        checksum.catchUp(cached.toFile());
+        try {
+            checksum.verify(cached.toString());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private synchronized void touch(Path cached) throws IOException {
+        load();
+        Entry entry = index.get(cached);
+        if (entry == null) {
+            // 其它进程放入的缓存
+            added(cached, Files.size(cached));
+        } else {
+            entry.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    private synchronized void added(Path cached, long size) throws IOException {
+        load();
+        Entry old = index.put(cached, new Entry(size, System.currentTimeMillis()));
+        totalSize += size - (old == null ? 0 : old.size);
+    }
+
+    private synchronized void remove(Path cached) throws IOException {
+        load();
+        deleteFile(cached);
+        Entry old = index.remove(cached);
+        if (old != null) {
+            totalSize -= old.size;
+        }
+    }
+
+    /**
+     * 首次使用时扫描缓存目录建立索引
+     */
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(p -> {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                    if (attrs.isRegularFile() && !p.toString().endsWith(TMP_SUFFIX)) {
+                        index.put(p, new Entry(attrs.size(), attrs.lastModifiedTime().toMillis()));
+                        totalSize += attrs.size();
+                    }
+                } catch (IOException e) {
+                    log.log(Level.FINE, "Read cache file attributes error. path=" + p, e);
+                }
+            });
+        }
+    }
+
+    private Path pathOf(String key) {
+        String hash = DigestUtils.sha256Hex(key);
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * 删除只读文件，Windows上需要先取消只读
+     */
+    private static void deleteFile(Path path) throws IOException {
+        File file = path.toFile();
+        if (file.exists()) {
+            file.setWritable(true, true);
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private static boolean link(Path cached, Path target) {
+        try {
+            Files.createLink(target, cached);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.log(Level.FINE, "Create hard link error, fallback to copy. target=" + target, e);
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final long size;
+        private long lastAccess;
+
+        private Entry(long size, long lastAccess) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.jenkins.plugins.nexus.utils;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.Getter;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * 下载时边写入边计算摘要，用于校验Nexus Asset的checksum。
+ * 断点续传或者分段下载时，只补算还没有经过摘要计算的部分。
+ * 上传前也用于计算本地文件的摘要，跳过仓库中内容相同的文件。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-14
+ */
+public final class ChecksumDigest {
+
+    public static final String SHA1 = "sha1";
+    public static final String SHA256 = "sha256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Getter
+    private final String algorithm;
+
+    @Getter
+    private final String expected;
+
+    private final MessageDigest digest;
+
+    /**
+     * 已经计算摘要的字节数
+     */
+    private long length;
+
+    private ChecksumDigest(String algorithm, String expected) {
+        this.algorithm = algorithm;
+        this.expected = expected.toLowerCase();
+        try {
+            this.digest = MessageDigest.getInstance(SHA256.equals(algorithm) ? "SHA-256" : "SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 优先使用sha256，没有checksum时返回null
+     */
+    public static ChecksumDigest of(NexusDownloadInfo ndi) {
+        if (Utils.isNotEmpty(ndi.getSha256())) {
+            return new ChecksumDigest(SHA256, ndi.getSha256());
+        }
+        if (Utils.isNotEmpty(ndi.getSha1())) {
+            return new ChecksumDigest(SHA1, ndi.getSha1());
+        }
+        return null;
+    }
+
+    /**
+     * 并行计算文件的sha256
+     *
+     * @param threads 线程数
+     * @return 文件与摘要（小写十六进制）
+     */
+    public static Map<File, String> sha256Hex(List<File> files, int threads) throws IOException {
+        Map<File, String> hashes = new HashMap<>();
+        threads = Math.max(1, Math.min(threads, files.size()));
+        if (threads == 1) {
+            for (File file : files) {
+                hashes.put(file, sha256Hex(file));
+            }
+            return hashes;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threads, new NamingThreadFactory(new DaemonThreadFactory(), "nexus-checksum"));
+        try {
+            Map<File, Future<String>> futures = new LinkedHashMap<>();
+            for (File file : files) {
+                futures.put(file, executor.submit(() -> sha256Hex(file)));
+            }
+            for (Map.Entry<File, Future<String>> entry : futures.entrySet()) {
+                hashes.put(entry.getKey(), entry.getValue().get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing checksums");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String sha256Hex(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return DigestUtils.sha256Hex(in);
+        }
+    }
+
+    public void reset() {
+        digest.reset();
+        length = 0;
+    }
+
+    /**
+     * 写入输出流的同时计算摘要
+     */
+    public OutputStream wrap(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                digest.update((byte) b);
+                length++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                digest.update(b, off, len);
+                length += len;
+            }
+        };
+    }
+
+    /**
+     * 补算文件中还没有计算摘要的部分
+     */
+    public void catchUp(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            long skipped = in.skip(length);
+            if (skipped != length) {
+                throw new IOException("File is shorter than digested length: " + file);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+                length += n;
+            }
+        }
+    }
+
+    /**
+     * 期望的摘要，格式为 algorithm:hex
+     */
+    public String expectedValue() {
+        return algorithm + ":" + expected;
+    }
+
+    /**
+     * 摘要结果，格式为 algorithm:hex
+     */
+    public String value() {
+        return algorithm + ":" + hex();
+    }
+
+    private String hex() {
+        try {
+            return Hex.encodeHexString(((MessageDigest) digest.clone()).digest());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void verify(String url) throws IOException {
+        String actual = hex();
+        if (!expected.equals(actual)) {
+            throw new IOException(String.format(
+                    "Checksum mismatch. url=%s, %s expected=%s, actual=%s", url, algorithm, expected, actual));
+        }
+    }
+}
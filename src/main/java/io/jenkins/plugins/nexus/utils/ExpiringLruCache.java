@@ -0,0 +1,228 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+/**
+ * 按容量和过期时间淘汰的LRU缓存，记录命中、未命中和淘汰次数。
+ * 过期后的一段时间内仍可以通过 {@link #lookup(Object)} 取到旧值，由调用方在后台刷新。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-16
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 最大条目数
+     */
+    @Getter
+    private volatile int maxSize;
+
+    /**
+     * 过期时间，单位毫秒，小于等于0时不缓存
+     */
+    @Getter
+    private volatile long ttlMillis;
+
+    /**
+     * 过期后仍可返回旧值的时间，单位毫秒
+     */
+    @Getter
+    private volatile long staleMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public ExpiringLruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, 0);
+    }
+
+    public ExpiringLruCache(int maxSize, long ttlMillis, long staleMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = staleMillis;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    /**
+     * 修改容量和过期时间，缩小容量时立即淘汰多余的条目
+     */
+    public synchronized void configure(int maxSize, long ttlMillis) {
+        configure(maxSize, ttlMillis, staleMillis);
+    }
+
+    public synchronized void configure(int maxSize, long ttlMillis, long staleMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = staleMillis;
+        if (!isEnabled()) {
+            entries.clear();
+            return;
+        }
+        evictOverflow();
+    }
+
+    /**
+     * 获取未过期的值，没有时返回null
+     */
+    public synchronized V get(K key) {
+        Hit<V> hit = lookup(key);
+        return hit == null || hit.stale ? null : hit.value;
+    }
+
+    /**
+     * 获取值，过期但仍在可返回旧值的时间内时返回旧值并标记为stale，没有时返回null
+     */
+    public synchronized Hit<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && now >= entry.expireAt + staleMillis) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        boolean stale = now >= entry.expireAt;
+        if (stale) {
+            staleHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return new Hit<>(entry.value, stale);
+    }
+
+    /**
+     * 是否有未过期的值，不影响统计信息
+     */
+    public synchronized boolean isFresh(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.currentTimeMillis() < entry.expireAt;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (!isEnabled()) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        evictOverflow();
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * 返回过期旧值的次数
+     */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 超过容量被淘汰的次数
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * 过期被移除的次数
+     */
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    /**
+     * 命中率，百分比
+     */
+    public double getHitRate() {
+        long served = hits.get() + staleHits.get();
+        long total = served + misses.get();
+        return total == 0 ? 0 : served * 100.0 / total;
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        staleHits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        expirations.set(0);
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 查询结果
+     */
+    @Getter
+    public static final class Hit<V> {
+        private final V value;
+        /**
+         * 值已过期，需要刷新
+         */
+        private final boolean stale;
+
+        private Hit(V value, boolean stale) {
+            this.value = value;
+            this.stale = stale;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
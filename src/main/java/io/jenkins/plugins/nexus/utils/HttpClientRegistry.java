@@ -0,0 +1,181 @@
+package io.jenkins.plugins.nexus.utils;
+
+import hudson.init.Terminator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.java.Log;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+
+/**
+ * JVM级别的HttpClient注册表，按Nexus Server ID缓存长连接池客户端，复用Keep-Alive连接和TLS会话。
+ * 配置变更时（包括Agent上收到新的配置）会重建客户端。被替换的客户端等正在执行的请求全部结束后才关闭，
+ * 不影响进行中的上传和下载。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+@Log
+public final class HttpClientRegistry {
+
+    private static final Map<String, PooledClient> CLIENTS = new ConcurrentHashMap<>();
+
+    private HttpClientRegistry() {}
+
+    /**
+     * 获取共享客户端并登记一个正在执行的请求，请求结束后必须调用 {@link PooledClient#release()}。
+     * 调用方不能关闭返回的客户端
+     *
+     * @param key      Nexus Server ID
+     * @param settings 连接池配置
+     */
+    public static PooledClient acquire(String key, HttpClientSettings settings) {
+        while (true) {
+            PooledClient pooled = get(key, settings);
+            if (pooled.tryAcquire()) {
+                return pooled;
+            }
+            // 刚好被替换，重新获取
+        }
+    }
+
+    private static PooledClient get(String key, HttpClientSettings settings) {
+        PooledClient pooled = CLIENTS.get(key);
+        if (pooled != null && Objects.equals(pooled.settings, settings)) {
+            return pooled;
+        }
+        try {
+            return CLIENTS.compute(key, (k, old) -> {
+                if (old != null && Objects.equals(old.settings, settings)) {
+                    return old;
+                }
+                if (old != null) {
+                    old.retire(k);
+                }
+                try {
+                    log.log(Level.FINE, "Create pooled http client. key={0}", k);
+                    ResponseStats stats = old != null ? old.stats : new ResponseStats();
+                    return new PooledClient(HttpUtils.createClient(settings, stats), settings, stats);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new NexusClientException(e.getCause());
+        }
+    }
+
+    /**
+     * 创建不注册的客户端，调用方负责在使用完后关闭
+     */
+    static PooledClient createUnshared(HttpClientSettings settings) {
+        try {
+            ResponseStats stats = new ResponseStats();
+            return new PooledClient(HttpUtils.createClient(settings, stats), settings, stats);
+        } catch (IOException e) {
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 各个客户端的API响应字节数统计，Key为Nexus Server ID
+     */
+    public static Map<String, ResponseStats> getStats() {
+        Map<String, ResponseStats> stats = new TreeMap<>();
+        CLIENTS.forEach((key, pooled) -> stats.put(key, pooled.stats));
+        return stats;
+    }
+
+    public static void invalidate(String key) {
+        PooledClient pooled = CLIENTS.remove(key);
+        if (pooled != null) {
+            pooled.retire(key);
+        }
+    }
+
+    public static void invalidateAll() {
+        List<String> keys = new ArrayList<>(CLIENTS.keySet());
+        keys.forEach(HttpClientRegistry::invalidate);
+    }
+
+    @Terminator
+    public static void shutdown() {
+        invalidateAll();
+    }
+
+    /**
+     * 连接池客户端以及并发请求数限制
+     */
+    @Getter
+    public static final class PooledClient {
+        private final CloseableHttpClient client;
+        private final HttpClientSettings settings;
+        private final Semaphore permits;
+        private final ResponseStats stats;
+
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        @Getter(AccessLevel.NONE)
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Getter(AccessLevel.NONE)
+        private volatile String retiredKey;
+
+        PooledClient(CloseableHttpClient client, HttpClientSettings settings, ResponseStats stats) {
+            this.client = client;
+            this.settings = settings;
+            this.stats = stats;
+            this.permits = settings.getMaxInFlightRequests() > 0
+                    ? new Semaphore(settings.getMaxInFlightRequests(), true)
+                    : null;
+        }
+
+        /**
+         * 请求结束，客户端已被替换且没有其它请求时关闭
+         */
+        public void release() {
+            if (inFlight.decrementAndGet() == 0 && retiredKey != null) {
+                close();
+            }
+        }
+
+        boolean tryAcquire() {
+            inFlight.incrementAndGet();
+            if (retiredKey == null) {
+                return true;
+            }
+            release();
+            return false;
+        }
+
+        /**
+         * 不再分配新的请求，没有正在执行的请求时立即关闭
+         */
+        void retire(String key) {
+            retiredKey = key;
+            if (inFlight.get() == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                log.log(Level.FINE, "Close pooled http client. key={0}", retiredKey);
+                client.close(CloseMode.GRACEFUL);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * HttpClient连接池和超时配置，随客户端一起序列化到Agent
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+@Setter
+@Getter
+@ToString
+@EqualsAndHashCode
+public class HttpClientSettings implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_MAX_CONN_TOTAL = 20;
+    public static final int DEFAULT_MAX_CONN_PER_ROUTE = 10;
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10;
+    public static final int DEFAULT_READ_TIMEOUT = 60;
+    public static final int DEFAULT_IDLE_EVICT_TIME = 60;
+    public static final int DEFAULT_LEASE_TIMEOUT = 300;
+
+    /**
+     * 连接池最大连接数
+     */
+    private int maxConnTotal = DEFAULT_MAX_CONN_TOTAL;
+    /**
+     * 每个路由最大连接数
+     */
+    private int maxConnPerRoute = DEFAULT_MAX_CONN_PER_ROUTE;
+    /**
+     * 连接超时时间，单位秒
+     */
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    /**
+     * 读取超时时间，单位秒
+     */
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    /**
+     * 空闲连接回收时间，单位秒
+     */
+    private int idleEvictTime = DEFAULT_IDLE_EVICT_TIME;
+    /**
+     * 从连接池获取连接的最长等待时间，单位秒。连接池在同一节点的构建之间共享，连接用完时排队等待
+     */
+    private int leaseTimeout = DEFAULT_LEASE_TIMEOUT;
+    /**
+     * 上传请求等待响应的超时时间，单位秒，0表示不限制。大文件上传后服务端处理时间较长
+     */
+    private int uploadTimeout;
+    /**
+     * 同时进行的最大请求数，小于等于0表示不限制
+     */
+    private int maxInFlightRequests;
+    /**
+     * API请求（JSON、XML）是否使用gzip/deflate压缩
+     */
+    private boolean compression = true;
+
+    public static HttpClientSettings defaults() {
+        return new HttpClientSettings();
+    }
+}
@@ -4,6 +4,9 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import javax.net.ssl.SSLContext;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.DefaultRedirectStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
@@ -14,6 +17,8 @@ import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
 import org.apache.hc.client5.http.ssl.TrustAllStrategy;
 import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 
 /**
  * @author Bruce.Wu
@@ -21,9 +26,25 @@ import org.apache.hc.core5.ssl.SSLContexts;
  */
 public final class HttpUtils {
 
+    private static final TimeValue VALIDATE_AFTER_INACTIVITY = TimeValue.ofSeconds(2);
+
     private HttpUtils() {}
 
     public static CloseableHttpClient createClient() throws IOException {
+        return createClient(HttpClientSettings.defaults());
+    }
+
+    public static CloseableHttpClient createClient(HttpClientSettings settings) throws IOException {
+        return createClient(settings, null);
+    }
+
+    /**
+     * 创建客户端，默认不压缩（下载的文件需要支持Range请求），API请求通过 {@link #requestConfig} 单独开启压缩
+     *
+     * @param stats 响应字节数统计，为null时不统计
+     */
+    public static CloseableHttpClient createClient(HttpClientSettings settings, ResponseStats stats)
+            throws IOException {
         SSLContext sslCtx;
         try {
             sslCtx = SSLContexts.custom()
@@ -36,12 +57,51 @@ public final class HttpUtils {
                 .setSslContext(sslCtx)
                 .setHostnameVerifier(new NoopHostnameVerifier())
                 .build();
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofSeconds(settings.getConnectTimeout()))
+                .setSocketTimeout(Timeout.ofSeconds(settings.getReadTimeout()))
+                .setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY)
+                .build();
         PoolingHttpClientConnectionManager connMgt = PoolingHttpClientConnectionManagerBuilder.create()
                 .setSSLSocketFactory(sslSocketFactory)
+                .setMaxConnTotal(settings.getMaxConnTotal())
+                .setMaxConnPerRoute(settings.getMaxConnPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
                 .build();
-        return HttpClientBuilder.create()
+        HttpClientBuilder builder = HttpClientBuilder.create()
                 .setConnectionManager(connMgt)
+                .setDefaultRequestConfig(requestConfig(settings, false))
                 .setRedirectStrategy(DefaultRedirectStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(settings.getIdleEvictTime()));
+        if (stats != null) {
+            builder.addExecInterceptorFirst("nexus-decoded-stats", stats.decodedCounter())
+                    .addExecInterceptorBefore(ChainElement.PROTOCOL.name(), "nexus-wire-stats", stats.wireCounter());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 请求配置，开启压缩时请求头带上 Accept-Encoding（gzip、deflate，类路径中有brotli解码器时包括br），响应以流的方式解压
+     *
+     * @param compression 是否压缩，只对 {@link HttpClientSettings#isCompression()} 为true的服务端生效
+     */
+    public static RequestConfig requestConfig(HttpClientSettings settings, boolean compression) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofSeconds(settings.getLeaseTimeout()))
+                .setResponseTimeout(Timeout.ofSeconds(settings.getReadTimeout()))
+                .setContentCompressionEnabled(compression && settings.isCompression())
+                .build();
+    }
+
+    /**
+     * 上传请求配置，使用单独的响应超时时间，没有配置时不限制
+     */
+    public static RequestConfig uploadRequestConfig(HttpClientSettings settings) {
+        Timeout responseTimeout =
+                settings.getUploadTimeout() > 0 ? Timeout.ofSeconds(settings.getUploadTimeout()) : Timeout.DISABLED;
+        return RequestConfig.copy(requestConfig(settings, false))
+                .setResponseTimeout(responseTimeout)
                 .build();
     }
 
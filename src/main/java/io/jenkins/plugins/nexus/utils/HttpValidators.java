@@ -0,0 +1,170 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Level;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.java.Log;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpMessage;
+
+/**
+ * HTTP缓存校验信息（ETag、Last-Modified以及Nexus Asset的lastModified），用于发送条件请求。
+ * 下载文件的校验信息保存在工作空间之外的目录（默认为Agent根目录下的 caches/nexus-validators），
+ * 按文件绝对路径的摘要命名，不会在下载目录中留下额外的文件。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-13
+ */
+@Log
+@Setter
+@Getter
+@ToString
+public class HttpValidators implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String etag;
+    private String lastModified;
+    /**
+     * Nexus Asset的lastModified
+     */
+    private String assetLastModified;
+    /**
+     * 下载时校验通过的文件摘要，格式为 algorithm:hex
+     */
+    private String checksum;
+    /**
+     * 保存校验信息时本地文件的大小和修改时间，文件被修改后校验信息失效
+     */
+    private long fileSize = -1;
+
+    private long fileModified = -1;
+
+    public static HttpValidators from(HttpMessage response) {
+        HttpValidators validators = new HttpValidators();
+        validators.etag = headerValue(response, HttpHeaders.ETAG);
+        validators.lastModified = headerValue(response, HttpHeaders.LAST_MODIFIED);
+        return validators;
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null && assetLastModified == null && checksum == null;
+    }
+
+    /**
+     * 添加 If-None-Match / If-Modified-Since 请求头
+     */
+    public void applyTo(HttpMessage request) {
+        if (etag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * If-Range 请求头的值。弱ETag不能用于If-Range，此时使用Last-Modified，都没有时返回null
+     */
+    public String ifRangeValue() {
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return lastModified;
+    }
+
+    public boolean isConditional() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * 本地文件与Nexus Asset一致时，不需要请求服务端。双方都有摘要时按摘要比较，否则比较lastModified
+     */
+    public boolean matchesAsset(String assetLastModified, String checksum) {
+        if (this.checksum != null && checksum != null) {
+            return this.checksum.equalsIgnoreCase(checksum);
+        }
+        return this.assetLastModified != null && Objects.equals(this.assetLastModified, assetLastModified);
+    }
+
+    /**
+     * 读取文件的校验信息，文件不存在或者已被修改时返回null
+     *
+     * @param dir 校验信息目录
+     */
+    public static HttpValidators load(File dir, File file) {
+        File sidecar = sidecarOf(dir, file);
+        if (!file.isFile() || !sidecar.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(sidecar.toPath())) {
+            props.load(in);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Read validators error. file=" + sidecar, e);
+            return null;
+        }
+        HttpValidators validators = new HttpValidators();
+        validators.etag = props.getProperty("etag");
+        validators.lastModified = props.getProperty("lastModified");
+        validators.assetLastModified = props.getProperty("assetLastModified");
+        validators.checksum = props.getProperty("checksum");
+        validators.fileSize = Long.parseLong(props.getProperty("fileSize", "-1"));
+        validators.fileModified = Long.parseLong(props.getProperty("fileModified", "-1"));
+        if (validators.fileSize != file.length() || validators.fileModified != file.lastModified()) {
+            return null;
+        }
+        return validators;
+    }
+
+    /**
+     * 保存文件的校验信息
+     *
+     * @param dir 校验信息目录
+     */
+    public void save(File dir, File file) throws IOException {
+        File sidecar = sidecarOf(dir, file);
+        if (isEmpty()) {
+            Files.deleteIfExists(sidecar.toPath());
+            return;
+        }
+        Files.createDirectories(sidecar.getParentFile().toPath());
+        Properties props = new Properties();
+        setIfNotNull(props, "etag", etag);
+        setIfNotNull(props, "lastModified", lastModified);
+        setIfNotNull(props, "assetLastModified", assetLastModified);
+        setIfNotNull(props, "checksum", checksum);
+        props.setProperty("fileSize", Long.toString(file.length()));
+        props.setProperty("fileModified", Long.toString(file.lastModified()));
+        try (OutputStream out = Files.newOutputStream(sidecar.toPath())) {
+            props.store(out, null);
+        }
+    }
+
+    private static File sidecarOf(File dir, File file) {
+        String hash = DigestUtils.sha256Hex(file.toPath().toAbsolutePath().normalize().toString());
+        return new File(new File(dir, hash.substring(0, 2)), hash + ".properties");
+    }
+
+    private static void setIfNotNull(Properties props, String key, String value) {
+        if (value != null) {
+            props.setProperty(key, value);
+        }
+    }
+
+    private static String headerValue(HttpMessage message, String name) {
+        Header header = message.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.nexus.utils;
+
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * 直接从响应流中解析JSON，不把整个响应体读到内存中，只绑定实体类中声明的字段。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-21
+ */
+public final class JsonStreams {
+
+    private static final String ITEMS = "items";
+
+    private static final String CONTINUATION_TOKEN = "continuationToken";
+
+    private JsonStreams() {}
+
+    /**
+     * 解析Nexus分页查询结果 {"items": [...], "continuationToken": "..."}，逐个回调items中的元素，
+     * 回调返回false时停止读取剩余的内容
+     *
+     * @param itemHandler 处理元素，返回false时停止
+     * @return continuationToken，没有下一页或者提前停止时返回null
+     */
+    public static <T> String readPage(InputStream in, Class<T> itemType, Predicate<T> itemHandler) throws IOException {
+        try (JSONReader reader = JSONReader.of(in, StandardCharsets.UTF_8)) {
+            if (!reader.nextIfObjectStart()) {
+                throw new IOException("Expect JSON object");
+            }
+            String continuationToken = null;
+            while (!reader.nextIfObjectEnd()) {
+                String field = reader.readFieldName();
+                if (ITEMS.equals(field)) {
+                    if (reader.nextIfNull()) {
+                        continue;
+                    }
+                    if (!reader.nextIfArrayStart()) {
+                        throw new IOException("Expect JSON array: " + ITEMS);
+                    }
+                    while (!reader.nextIfArrayEnd()) {
+                        if (!itemHandler.test(reader.read(itemType))) {
+                            return null;
+                        }
+                    }
+                } else if (CONTINUATION_TOKEN.equals(field)) {
+                    continuationToken = reader.readString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            return continuationToken;
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+    }
+
+    public static <T> T read(InputStream in, Class<T> type) throws IOException {
+        try (JSONReader reader = JSONReader.of(in, StandardCharsets.UTF_8)) {
+            return reader.read(type);
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+    }
+}
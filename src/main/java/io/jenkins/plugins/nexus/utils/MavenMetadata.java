@@ -0,0 +1,84 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * 流式解析 maven-metadata.xml，只读取 versioning/versions/version，不构建整个文档。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-20
+ */
+public final class MavenMetadata {
+
+    public static final String FILE_NAME = "maven-metadata.xml";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private MavenMetadata() {}
+
+    /**
+     * 解析版本列表，顺序与文件中一致（一般为发布顺序）
+     */
+    public static List<String> parseVersions(InputStream in) throws IOException {
+        List<String> versions = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            // 当前元素的路径深度：metadata=1, versioning=2, versions=3, version=4
+            boolean inVersioning = false;
+            boolean inVersions = false;
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (depth == 2 && "versioning".equals(name)) {
+                        inVersioning = true;
+                    } else if (depth == 3 && inVersioning && "versions".equals(name)) {
+                        inVersions = true;
+                    } else if (depth == 4 && inVersions && "version".equals(name)) {
+                        String version = reader.getElementText().trim();
+                        depth--;
+                        if (!version.isEmpty()) {
+                            versions.add(version);
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 3) {
+                        inVersions = false;
+                    } else if (depth == 2) {
+                        inVersioning = false;
+                    }
+                    depth--;
+                }
+            }
+            return versions;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid " + FILE_NAME, e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // ignored
+                }
+            }
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // 不处理DTD和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
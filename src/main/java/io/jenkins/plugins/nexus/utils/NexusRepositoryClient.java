@@ -8,40 +8,91 @@ import static io.jenkins.plugins.nexus.utils.Constants.SORT;
 import static io.jenkins.plugins.nexus.utils.Constants.VERSION;
 
 import com.alibaba.fastjson2.JSON;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
+import io.jenkins.plugins.nexus.model.dto.NexusArtifactDownloadResult;
 import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadOptions;
+import io.jenkins.plugins.nexus.model.dto.NexusUploadOptions;
 import io.jenkins.plugins.nexus.model.req.NexusSearchAssertsReq;
 import io.jenkins.plugins.nexus.model.req.NexusSearchComponentsReq;
 import io.jenkins.plugins.nexus.model.req.NexusUploadSingleComponentReq;
+import io.jenkins.plugins.nexus.model.resp.NexusAssertDetails;
+import io.jenkins.plugins.nexus.model.resp.NexusComponentDetails;
 import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
 import io.jenkins.plugins.nexus.model.resp.NexusSearchAssertsResp;
 import io.jenkins.plugins.nexus.model.resp.NexusSearchComponentsResp;
 import io.jenkins.plugins.nexus.model.resp.SearchDockerTagsResp;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.java.Log;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.hc.client5.http.HttpResponseException;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.entity.mime.FileBody;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.client5.http.impl.classic.AbstractHttpClientResponseHandler;
 import org.apache.hc.client5.http.impl.classic.BasicHttpClientResponseHandler;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.FileEntity;
 import org.apache.hc.core5.net.URIBuilder;
 
 /**
@@ -52,71 +103,306 @@ import org.apache.hc.core5.net.URIBuilder;
  */
 @Getter
 @Log
-public class NexusRepositoryClient implements Serializable {
+public class NexusRepositoryClient implements Serializable, Closeable {
 
     private static final long serialVersionUID = 1L;
 
+    private final String serverId;
+
     private final String url;
 
     private final String authorization;
 
     private final boolean docker;
 
-    private static final int MAX_ASSERTS = 12;
+    private final HttpClientSettings settings;
+
+    /**
+     * 没有Server ID时使用的独立连接池，不注册到 {@link HttpClientRegistry}，由 {@link #close()} 关闭
+     */
+    @Getter(AccessLevel.NONE)
+    private transient HttpClientRegistry.PooledClient unshared;
+
+    /**
+     * Nexus组件上传接口每个请求最多3个文件
+     */
+    private static final int UPLOAD_BATCH_SIZE = 3;
+
+    private static final String PART_FILE_SUFFIX = ".part";
+
+    /**
+     * 临时文件对应的ETag或Last-Modified，续传时作为If-Range发送
+     */
+    private static final String PART_VALIDATOR_SUFFIX = ".validator";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_VALIDATED_ENTRIES = 256;
 
+    /**
+     * 带校验信息的仓库详情，用于条件请求
+     */
+    private static final Map<String, Validated<NexusRepositoryDetails>> VALIDATED_REPOSITORY_DETAILS =
+            Collections.synchronizedMap(new LinkedHashMap<String, Validated<NexusRepositoryDetails>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Validated<NexusRepositoryDetails>> eldest) {
+                    return size() > MAX_VALIDATED_ENTRIES;
+                }
+            });
+
+    /**
+     * 带校验信息的 maven-metadata.xml 版本列表，用于条件请求
+     */
+    private static final Map<String, Validated<List<String>>> VALIDATED_MAVEN_METADATA =
+            Collections.synchronizedMap(new LinkedHashMap<String, Validated<List<String>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Validated<List<String>>> eldest) {
+                    return size() > MAX_VALIDATED_ENTRIES;
+                }
+            });
+
+    /**
+     * 不共享连接池的客户端，用于保存配置前测试连接等一次性的请求，使用完后必须调用 {@link #close()}
+     */
     public NexusRepositoryClient(String url, String authorization, boolean docker) {
+        this(null, url, authorization, docker, HttpClientSettings.defaults());
+    }
+
+    public NexusRepositoryClient(
+            String serverId, String url, String authorization, boolean docker, HttpClientSettings settings) {
+        this.serverId = serverId;
         this.url = url;
         this.authorization = authorization;
         this.docker = docker;
+        this.settings = settings;
     }
 
     public NexusRepositoryClient(NexusRepoServerConfig cfg) {
-        this(cfg.getServerUrl(), cfg.getAuthorization(), cfg.isDocker());
+        this(cfg, cfg.getAuthorization());
     }
 
     public NexusRepositoryClient(NexusRepoServerConfig cfg, String authorization) {
-        this(cfg.getServerUrl(), authorization, cfg.isDocker());
+        this(cfg.getServerId(), cfg.getServerUrl(), authorization, cfg.isDocker(), cfg.toHttpClientSettings());
+    }
+
+    /**
+     * 按Server ID共享的连接池客户端，不需要关闭，请求结束后调用release。
+     * 没有Server ID时使用独立的连接池，避免按URL注册的客户端一直不被清理
+     */
+    private HttpClientRegistry.PooledClient pooledClient() {
+        if (Utils.isNotEmpty(serverId)) {
+            return HttpClientRegistry.acquire(serverId, settings);
+        }
+        synchronized (this) {
+            if (unshared == null) {
+                unshared = HttpClientRegistry.createUnshared(settings);
+            }
+            if (!unshared.tryAcquire()) {
+                throw new NexusClientException("Nexus client is closed. url=" + url);
+            }
+            return unshared;
+        }
+    }
+
+    /**
+     * 关闭独立的连接池，正在执行的请求结束后才关闭；共享的连接池由 {@link HttpClientRegistry} 管理，不受影响
+     */
+    @Override
+    public synchronized void close() {
+        if (unshared != null) {
+            unshared.retire(url);
+        }
+    }
+
+    /**
+     * API请求（JSON、XML），按服务端配置开启压缩
+     */
+    private HttpGet apiGet(String uri) {
+        HttpGet request = new HttpGet(uri);
+        request.setConfig(HttpUtils.requestConfig(settings, true));
+        return request;
+    }
+
+    /**
+     * 执行请求，添加认证信息并限制同时进行的请求数
+     */
+    private <T> T execute(ClassicHttpRequest request, HttpClientResponseHandler<? extends T> handler)
+            throws IOException {
+        if (Utils.isNotEmpty(authorization)) {
+            request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        HttpClientRegistry.PooledClient pooled = pooledClient();
+        try {
+            Semaphore permits = pooled.getPermits();
+            if (permits == null) {
+                return pooled.getClient().execute(request, handler);
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for nexus request permit");
+            }
+            try {
+                return pooled.getClient().execute(request, handler);
+            } finally {
+                permits.release();
+            }
+        } finally {
+            pooled.release();
+        }
     }
 
     /**
      * 检查
      */
     public void check() {
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
+        try {
             HttpGet request = new HttpGet(url);
             if (docker) {
                 request = new HttpGet(url + "/v2/_catalog");
             }
-            if (Utils.isNotEmpty(authorization)) {
-                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-            }
-            httpClient.execute(request, new BasicHttpClientResponseHandler());
+            execute(request, new BasicHttpClientResponseHandler());
         } catch (IOException e) {
             throw new NexusClientException(e);
         }
     }
 
     public NexusRepositoryDetails getRepositoryDetails(String name) {
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
-            HttpGet request = new HttpGet(url + "/service/rest/v1/repositories/" + name);
-            request.setConfig(
-                    RequestConfig.custom().setContentCompressionEnabled(false).build());
-            if (Utils.isNotEmpty(authorization)) {
-                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-            }
-            return httpClient.execute(request, new AbstractHttpClientResponseHandler<>() {
-                @Override
-                public NexusRepositoryDetails handleEntity(HttpEntity entity) throws IOException {
-                    byte[] bs = EntityUtils.toByteArray(entity);
-                    return JSON.parseObject(bs, NexusRepositoryDetails.class);
+        String requestUrl = url + "/service/rest/v1/repositories/" + name;
+        String cacheKey = validatedCacheKey(requestUrl);
+        Validated<NexusRepositoryDetails> cached = VALIDATED_REPOSITORY_DETAILS.get(cacheKey);
+        try {
+            HttpGet request = apiGet(requestUrl);
+            if (cached != null) {
+                cached.validators.applyTo(request);
+            }
+            return execute(request, response -> {
+                HttpEntity entity = response.getEntity();
+                if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                    EntityUtils.consume(entity);
+                    return cached.value;
                 }
+                if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+                    EntityUtils.consume(entity);
+                    throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+                }
+                byte[] bs = EntityUtils.toByteArray(entity);
+                NexusRepositoryDetails details = JSON.parseObject(bs, NexusRepositoryDetails.class);
+                HttpValidators validators = HttpValidators.from(response);
+                if (validators.isConditional()) {
+                    VALIDATED_REPOSITORY_DETAILS.put(cacheKey, new Validated<>(validators, details));
+                }
+                return details;
             });
         } catch (IOException e) {
             throw new NexusClientException(e);
         }
     }
 
+    /**
+     * 查询maven2 hosted仓库的属性（版本策略等），仓库不存在时返回null
+     */
+    public NexusRepositoryDetails.Maven getMavenHostedAttributes(String name) {
+        String requestUrl = url + "/service/rest/v1/repositories/maven/hosted/" + name;
+        try {
+            return execute(apiGet(requestUrl), response -> {
+                HttpEntity entity = response.getEntity();
+                if (response.getCode() == HttpStatus.SC_NOT_FOUND) {
+                    EntityUtils.consume(entity);
+                    return null;
+                }
+                if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+                    EntityUtils.consume(entity);
+                    throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+                }
+                byte[] bs = EntityUtils.toByteArray(entity);
+                return JSON.parseObject(bs, NexusRepositoryDetails.class).getMaven();
+            });
+        } catch (IOException e) {
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 读取maven2仓库中 group:artifact 的 maven-metadata.xml 中的版本列表，使用条件请求，未修改时不重复下载和解析
+     *
+     * @return 版本列表，顺序与文件中一致；文件不存在时返回null
+     */
+    public List<String> getMavenMetadataVersions(NexusRepositoryDetails nxRepo, String groupId, String artifactId) {
+        String requestUrl;
+        try {
+            List<String> segments = new ArrayList<>(Arrays.asList(StringUtils.split(groupId, '.')));
+            segments.add(artifactId);
+            segments.add(MavenMetadata.FILE_NAME);
+            requestUrl = new URIBuilder(StringUtils.removeEnd(nxRepo.getUrl(), "/"))
+                    .appendPathSegments(segments)
+                    .toString();
+        } catch (URISyntaxException e) {
+            throw new NexusClientException(e);
+        }
+        String cacheKey = validatedCacheKey(requestUrl);
+        Validated<List<String>> cached = VALIDATED_MAVEN_METADATA.get(cacheKey);
+        try {
+            HttpGet request = apiGet(requestUrl);
+            if (cached != null) {
+                cached.validators.applyTo(request);
+            }
+            return execute(request, response -> {
+                HttpEntity entity = response.getEntity();
+                if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                    EntityUtils.consume(entity);
+                    return cached.value;
+                }
+                if (response.getCode() == HttpStatus.SC_NOT_FOUND) {
+                    EntityUtils.consume(entity);
+                    VALIDATED_MAVEN_METADATA.remove(cacheKey);
+                    return null;
+                }
+                if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+                    EntityUtils.consume(entity);
+                    throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+                }
+                List<String> versions;
+                try (InputStream in = entity.getContent()) {
+                    versions = Collections.unmodifiableList(MavenMetadata.parseVersions(in));
+                }
+                HttpValidators validators = HttpValidators.from(response);
+                if (validators.isConditional()) {
+                    VALIDATED_MAVEN_METADATA.put(cacheKey, new Validated<>(validators, versions));
+                }
+                return versions;
+            });
+        } catch (IOException e) {
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 条件请求缓存的Key，区分不同的认证信息
+     */
+    private String validatedCacheKey(String requestUrl) {
+        return Utils.isNotEmpty(authorization) ? requestUrl + "#" + DigestUtils.sha256Hex(authorization) : requestUrl;
+    }
+
     public void uploadSingleComponent(NexusRepositoryDetails nxRepo, NexusUploadSingleComponentReq req) {
+        uploadSingleComponent(nxRepo, req, new NexusUploadOptions(), null);
+    }
+
+    /**
+     * 上传组件，文件按每3个一个批次流水线上传，raw仓库线程数大于1时并行上传各个批次。
+     * 正在上传和等待上传的批次数有上限，批次的请求体在上传时才创建，文件数量不受限制。
+     * raw仓库开启直接PUT时，每个文件作为一个批次直接PUT到仓库路径。
+     * maven2仓库的各个批次属于同一个组件，并行上传会同时创建组件、生成pom和metadata，所以按顺序上传，
+     * 只有最后一个批次生成pom。
+     *
+     * @param progressLog 上传进度日志，为null时不输出进度
+     */
+    public void uploadSingleComponent(
+            NexusRepositoryDetails nxRepo,
+            NexusUploadSingleComponentReq req,
+            NexusUploadOptions options,
+            Consumer<String> progressLog) {
         if (!NexusRepositoryType.isSupported(nxRepo.getType())) {
             throw new NexusClientException("Only support hosted type");
         }
@@ -127,67 +413,263 @@ public class NexusRepositoryClient implements Serializable {
             return;
         }
         NexusRepositoryFormat format = NexusRepositoryFormat.valueOf(nxRepo.getFormat());
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
-            List<HttpEntity> multipartEntities = new LinkedList<>();
-            if (NexusRepositoryFormat.raw.equals(format)) {
-                if (req.getFileAsserts().size() > MAX_ASSERTS) {
-                    throw new NexusClientException("Upload raw files more than 12");
-                }
-                MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-                for (int i = 0, len = req.getFileAsserts().size(); i < len; i++) {
-                    String prefix = String.format("raw.assert%d", (i % 3) + 1);
-                    File file = req.getFileAsserts().get(i).getFile();
-                    builder.addPart(prefix, new FileBody(file)).addTextBody(prefix + ".filename", file.getName());
-                    if (i + 1 >= len || (i + 1) % 3 == 0) {
-                        builder.addTextBody("raw.directory", req.toDirectory());
-                        multipartEntities.add(builder.build());
-                        builder = MultipartEntityBuilder.create();
-                    }
-                }
-            } else if (NexusRepositoryFormat.maven2.equals(format)) {
-                if (req.getFileAsserts().size() > MAX_ASSERTS) {
-                    throw new NexusClientException("Upload maven files more than 12");
-                }
-                MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-                for (int i = 0, len = req.getFileAsserts().size(); i < len; i++) {
-                    String prefix = String.format("maven2.assert%d", (i % 3) + 1);
-                    NexusUploadSingleComponentReq.FileAssert fileAssert =
-                            req.getFileAsserts().get(i);
-                    builder.addPart(prefix, new FileBody(fileAssert.getFile()))
-                            .addTextBody(
-                                    prefix + ".filename", fileAssert.getFile().getName())
-                            .addTextBody(prefix + ".extension", fileAssert.fileExt());
-                    if (i + 1 >= len || (i + 1) % 3 == 0) {
-                        builder.addTextBody("maven2.groupId", req.getGroup());
-                        builder.addTextBody("maven2.artifactId", req.getArtifactId());
-                        builder.addTextBody("maven2.generate-pom", Boolean.toString(req.isGeneratePom()));
-                        if (req.isGeneratePom()) {
-                            builder.addTextBody("maven2.packaging", req.getPacking());
-                        }
-                        multipartEntities.add(builder.build());
-                        builder = MultipartEntityBuilder.create();
-                    }
+        // raw仓库直接PUT时每个文件单独上传
+        boolean rawPut = NexusRepositoryFormat.raw.equals(format) && options.isRawPut();
+        int batchSize = rawPut ? 1 : UPLOAD_BATCH_SIZE;
+        List<NexusUploadSingleComponentReq.FileAssert> files = new ArrayList<>(req.getFileAsserts());
+        List<List<NexusUploadSingleComponentReq.FileAssert>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            batches.add(files.subList(i, Math.min(i + batchSize, files.size())));
+        }
+        long totalBytes = files.stream().mapToLong(e -> e.getFile().length()).sum();
+        TransferProgress progress = new TransferProgress(
+                "Uploaded", files.size(), totalBytes, progressLog != null ? progressLog : msg -> {});
+        List<NexusUploadSingleComponentReq.FileAssert> lastBatch = batches.get(batches.size() - 1);
+        BatchUploader uploader = rawPut
+                ? batch -> putRawFile(nxRepo, req, batch.get(0), options.getRetries())
+                : batch -> uploadBatch(nxRepo, req, batch, batch == lastBatch, options.getRetries());
+        int threads = NexusRepositoryFormat.maven2.equals(format) ? 1 : options.getThreads();
+        try {
+            uploadPipeline(nxRepo.getName(), batches, uploader, threads, progress);
+        } catch (IOException e) {
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 构建一个批次的multipart请求体
+     *
+     * @param generatePom maven2仓库是否在这个批次生成pom，同一个组件只能有一个批次生成
+     */
+    private static HttpEntity batchEntity(
+            NexusRepositoryFormat format,
+            NexusUploadSingleComponentReq req,
+            List<NexusUploadSingleComponentReq.FileAssert> batch,
+            boolean generatePom) {
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        for (int i = 0; i < batch.size(); i++) {
+            NexusUploadSingleComponentReq.FileAssert fileAssert = batch.get(i);
+            String prefix = String.format("%s.assert%d", format.name(), i + 1);
+            builder.addPart(prefix, new FileBody(fileAssert.getFile()))
+                    .addTextBody(prefix + ".filename", fileAssert.getFile().getName());
+            if (NexusRepositoryFormat.maven2.equals(format)) {
+                builder.addTextBody(prefix + ".extension", fileAssert.fileExt());
+            }
+        }
+        if (NexusRepositoryFormat.raw.equals(format)) {
+            builder.addTextBody("raw.directory", req.toDirectory());
+        } else if (NexusRepositoryFormat.maven2.equals(format)) {
+            builder.addTextBody("maven2.groupId", req.getGroup());
+            builder.addTextBody("maven2.artifactId", req.getArtifactId());
+            builder.addTextBody("maven2.generate-pom", Boolean.toString(generatePom));
+            if (generatePom) {
+                builder.addTextBody("maven2.packaging", req.getPacking());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 流水线上传：正在上传的批次达到上限时，等待任意批次完成后再提交新的批次，任意批次失败时停止上传
+     */
+    private void uploadPipeline(
+            String repository,
+            List<List<NexusUploadSingleComponentReq.FileAssert>> batches,
+            BatchUploader uploader,
+            int threads,
+            TransferProgress progress)
+            throws IOException {
+        // 线程数不超过每个路由的连接数，避免等待连接超时
+        threads = Math.min(threads, settings.getMaxConnPerRoute());
+        threads = Math.max(1, Math.min(threads, batches.size()));
+        if (threads == 1) {
+            for (List<NexusUploadSingleComponentReq.FileAssert> batch : batches) {
+                uploader.upload(batch);
+                completed(progress, batch);
+            }
+            return;
+        }
+        // 每个线程多排队一个批次，避免线程空闲
+        int maxInFlight = threads * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threads, new NamingThreadFactory(new DaemonThreadFactory(), "nexus-upload"));
+        try {
+            CompletionService<List<NexusUploadSingleComponentReq.FileAssert>> completionService =
+                    new ExecutorCompletionService<>(executor);
+            int inFlight = 0;
+            for (List<NexusUploadSingleComponentReq.FileAssert> batch : batches) {
+                if (inFlight >= maxInFlight) {
+                    completed(progress, completionService.take().get());
+                    inFlight--;
                 }
+                completionService.submit(() -> {
+                    uploader.upload(batch);
+                    return batch;
+                });
+                inFlight++;
+            }
+            for (; inFlight > 0; inFlight--) {
+                completed(progress, completionService.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading to " + repository);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-            for (HttpEntity entity : multipartEntities) {
-                HttpPost request = new HttpPost(url + "/service/rest/v1/components?repository=" + nxRepo.getName());
-                if (Utils.isNotEmpty(authorization)) {
-                    request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void completed(TransferProgress progress, List<NexusUploadSingleComponentReq.FileAssert> batch) {
+        progress.completed(
+                batch.size(), batch.stream().mapToLong(e -> e.getFile().length()).sum());
+    }
+
+    /**
+     * 上传一个批次，失败时单独重试该批次
+     */
+    private void uploadBatch(
+            NexusRepositoryDetails nxRepo,
+            NexusUploadSingleComponentReq req,
+            List<NexusUploadSingleComponentReq.FileAssert> batch,
+            boolean last,
+            int retries)
+            throws IOException {
+        NexusRepositoryFormat format = NexusRepositoryFormat.valueOf(nxRepo.getFormat());
+        HttpEntity entity = batchEntity(format, req, batch, last && req.isGeneratePom());
+        String requestUrl = url + "/service/rest/v1/components?repository=" + nxRepo.getName();
+        executeWithRetry(
+                () -> {
+                    HttpPost request = new HttpPost(requestUrl);
+                    request.setEntity(entity);
+                    return request;
+                },
+                entity,
+                retries,
+                () -> isStored(nxRepo, req, batch));
+    }
+
+    /**
+     * raw仓库直接PUT上传文件，请求体直接读取文件，没有multipart编码
+     */
+    private void putRawFile(
+            NexusRepositoryDetails nxRepo,
+            NexusUploadSingleComponentReq req,
+            NexusUploadSingleComponentReq.FileAssert fileAssert,
+            int retries)
+            throws IOException {
+        File file = fileAssert.getFile();
+        String requestUrl;
+        try {
+            List<String> segments = new ArrayList<>();
+            for (String segment : StringUtils.split(req.toDirectory(), '/')) {
+                segments.add(segment);
+            }
+            segments.add(file.getName());
+            requestUrl = new URIBuilder(StringUtils.removeEnd(nxRepo.getUrl(), "/"))
+                    .appendPathSegments(segments)
+                    .toString();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        FileEntity entity = new FileEntity(file, ContentType.APPLICATION_OCTET_STREAM);
+        executeWithRetry(
+                () -> {
+                    HttpPut request = new HttpPut(requestUrl);
+                    request.setEntity(entity);
+                    return request;
+                },
+                entity,
+                retries,
+                () -> isStored(nxRepo, req, Collections.singletonList(fileAssert)));
+    }
+
+    /**
+     * 发送上传请求，网络错误或者可重试的状态码时重试。
+     * 之前的请求可能已经保存成功只是没有收到响应，仓库不允许重新部署时重试会返回400，
+     * 此时检查仓库中的文件，内容都相同时认为上传成功
+     *
+     * @param storedCheck 检查本次上传的文件是否都已保存在仓库中
+     */
+    private void executeWithRetry(
+            Supplier<HttpUriRequestBase> requestSupplier, HttpEntity entity, int retries, BooleanSupplier storedCheck)
+            throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            HttpUriRequestBase request = requestSupplier.get();
+            request.setConfig(HttpUtils.uploadRequestConfig(settings));
+            try {
+                execute(request, new BasicHttpClientResponseHandler());
+                return;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt > 0
+                        && e instanceof HttpResponseException
+                        && ((HttpResponseException) e).getStatusCode() == HttpStatus.SC_BAD_REQUEST
+                        && storedCheck.getAsBoolean()) {
+                    log.log(Level.INFO, "Upload stored by a previous attempt. uri={0}", request.getRequestUri());
+                    return;
+                }
+                boolean retryable = !(e instanceof HttpResponseException)
+                        || isRetryable(((HttpResponseException) e).getStatusCode());
+                if (attempt >= retries || !retryable || !entity.isRepeatable()) {
+                    throw e;
                 }
-                request.setEntity(entity);
-                httpClient.execute(request, new BasicHttpClientResponseHandler());
+                log.log(
+                        Level.WARNING,
+                        "Retry upload. uri=" + request.getRequestUri() + ", attempt=" + (attempt + 1),
+                        e);
             }
-        } catch (IOException e) {
-            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 批次中的文件是否都已保存在仓库中并且内容相同
+     */
+    private boolean isStored(
+            NexusRepositoryDetails nxRepo,
+            NexusUploadSingleComponentReq req,
+            List<NexusUploadSingleComponentReq.FileAssert> batch) {
+        NexusUploadSingleComponentReq stored = new NexusUploadSingleComponentReq();
+        stored.setGroup(req.getGroup());
+        stored.setArtifactId(req.getArtifactId());
+        stored.setVersion(req.getVersion());
+        stored.setFileAsserts(batch);
+        try {
+            return findUnchangedFiles(nxRepo, stored, 1).size() == batch.size();
+        } catch (IOException | NexusClientException e) {
+            log.log(Level.FINE, "Check stored files failed", e);
+            return false;
         }
     }
 
     public NexusSearchComponentsResp searchComponents(NexusRepositoryDetails nxRepo, NexusSearchComponentsReq req) {
+        List<NexusComponentDetails> items = new ArrayList<>();
+        NexusSearchComponentsResp resp = new NexusSearchComponentsResp();
+        resp.setContinuationToken(searchComponents(nxRepo, req, items::add));
+        resp.setItems(items);
+        return resp;
+    }
+
+    /**
+     * 查询组件，边读取响应边回调，回调返回false时不再解析剩余的结果
+     *
+     * @param itemHandler 处理查询到的组件，返回false时停止
+     * @return continuationToken，没有下一页或者提前停止时返回null
+     */
+    public String searchComponents(
+            NexusRepositoryDetails nxRepo,
+            NexusSearchComponentsReq req,
+            Predicate<NexusComponentDetails> itemHandler) {
         if (!NexusRepositoryFormat.isSupported(nxRepo.getFormat())) {
             throw new NexusClientException("Only support maven2, raw format");
         }
         NexusRepositoryFormat format = NexusRepositoryFormat.valueOf(nxRepo.getFormat());
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
+        try {
             URIBuilder uriBuilder = new URIBuilder(url + "/service/rest/v1/search")
                     .addParameter(REPOSITORY, nxRepo.getName())
                     .addParameter(DIRECTION, "desc");
@@ -199,6 +681,9 @@ public class NexusRepositoryClient implements Serializable {
                         .addParameter(GROUP, req.getGroupId())
                         .addParameter(NAME, req.getArtifactId())
                         .addParameter(SORT, VERSION);
+                if (StringUtils.isNotEmpty(req.getVersion())) {
+                    uriBuilder.addParameter(VERSION, req.getVersion());
+                }
             } else {
                 throw new NexusClientException("Only support maven2, raw format");
             }
@@ -210,16 +695,13 @@ public class NexusRepositoryClient implements Serializable {
             log.log(Level.INFO, "Query raw components. repository={0}, uri={1}", new Object[] {
                 nxRepo.getName(), uriBuilder.toString()
             });
-            HttpGet httpGet = new HttpGet(uriBuilder.toString());
-            if (Utils.isNotEmpty(authorization)) {
-                httpGet.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-            }
-            return httpClient.execute(httpGet, new AbstractHttpClientResponseHandler<>() {
+            HttpGet httpGet = apiGet(uriBuilder.toString());
+            return execute(httpGet, new AbstractHttpClientResponseHandler<>() {
                 @Override
-                public NexusSearchComponentsResp handleEntity(HttpEntity entity) throws IOException {
-                    byte[] bs = EntityUtils.toByteArray(entity);
-                    EntityUtils.consume(entity);
-                    return JSON.parseObject(bs, NexusSearchComponentsResp.class);
+                public String handleEntity(HttpEntity entity) throws IOException {
+                    try (InputStream in = entity.getContent()) {
+                        return JsonStreams.readPage(in, NexusComponentDetails.class, itemHandler);
+                    }
                 }
             });
         } catch (Exception e) {
@@ -228,11 +710,26 @@ public class NexusRepositoryClient implements Serializable {
     }
 
     public NexusSearchAssertsResp searchAsserts(NexusRepositoryDetails nxRepo, NexusSearchAssertsReq req) {
+        List<NexusAssertDetails> items = new ArrayList<>();
+        NexusSearchAssertsResp resp = new NexusSearchAssertsResp();
+        resp.setContinuationToken(searchAsserts(nxRepo, req, items::add));
+        resp.setItems(items);
+        return resp;
+    }
+
+    /**
+     * 查询Asset，边读取响应边回调，回调返回false时不再解析剩余的结果
+     *
+     * @param itemHandler 处理查询到的Asset，返回false时停止
+     * @return continuationToken，没有下一页或者提前停止时返回null
+     */
+    public String searchAsserts(
+            NexusRepositoryDetails nxRepo, NexusSearchAssertsReq req, Predicate<NexusAssertDetails> itemHandler) {
         if (!NexusRepositoryFormat.isSupported(nxRepo.getFormat())) {
             throw new NexusClientException("Only support maven2, raw format");
         }
         NexusRepositoryFormat format = NexusRepositoryFormat.valueOf(nxRepo.getFormat());
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
+        try {
             URIBuilder uriBuilder =
                     new URIBuilder(url + "/service/rest/v1/search/assets").addParameter("repository", nxRepo.getName());
             if (NexusRepositoryFormat.raw.equals(format)) {
@@ -246,16 +743,16 @@ public class NexusRepositoryClient implements Serializable {
             } else {
                 throw new NexusClientException("Only support maven2, raw format");
             }
-            HttpGet httpGet = new HttpGet(uriBuilder.toString());
-            if (Utils.isNotEmpty(authorization)) {
-                httpGet.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+            if (StringUtils.isNotEmpty(req.getContinuationToken())) {
+                uriBuilder.addParameter("continuationToken", req.getContinuationToken());
             }
-            return httpClient.execute(httpGet, new AbstractHttpClientResponseHandler<>() {
+            HttpGet httpGet = apiGet(uriBuilder.toString());
+            return execute(httpGet, new AbstractHttpClientResponseHandler<>() {
                 @Override
-                public NexusSearchAssertsResp handleEntity(HttpEntity entity) throws IOException {
-                    byte[] bs = EntityUtils.toByteArray(entity);
-                    EntityUtils.consume(entity);
-                    return JSON.parseObject(bs, NexusSearchAssertsResp.class);
+                public String handleEntity(HttpEntity entity) throws IOException {
+                    try (InputStream in = entity.getContent()) {
+                        return JsonStreams.readPage(in, NexusAssertDetails.class, itemHandler);
+                    }
                 }
             });
         } catch (Exception e) {
@@ -263,43 +760,605 @@ public class NexusRepositoryClient implements Serializable {
         }
     }
 
+    /**
+     * 查找内容与仓库中已有Asset相同的文件。按文件上传后在仓库中的路径匹配Asset并比较sha256，
+     * 路径不同的Asset即使内容相同也不算，避免扩展名不同但内容相同的文件被跳过。
+     *
+     * @param threads 并行计算文件摘要的线程数
+     */
+    public List<NexusUploadSingleComponentReq.FileAssert> findUnchangedFiles(
+            NexusRepositoryDetails nxRepo, NexusUploadSingleComponentReq req, int threads) throws IOException {
+        Map<String, String> checksumByPath = new HashMap<>();
+        String continuationToken = null;
+        do {
+            NexusSearchAssertsReq searchReq = NexusSearchAssertsReq.builder()
+                    .groupId(req.getGroup())
+                    .artifactId(req.getArtifactId())
+                    .version(req.getVersion())
+                    .continuationToken(continuationToken)
+                    .build();
+            continuationToken = searchAsserts(nxRepo, searchReq, ass -> {
+                String sha256 = ass.checksum(ChecksumDigest.SHA256);
+                if (Utils.isNotEmpty(sha256) && Utils.isNotEmpty(ass.getPath())) {
+                    checksumByPath.put(StringUtils.removeStart(ass.getPath(), "/"), sha256.toLowerCase());
+                }
+                return true;
+            });
+        } while (StringUtils.isNotBlank(continuationToken));
+        if (checksumByPath.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean maven2 = NexusRepositoryFormat.maven2.matches(nxRepo.getFormat());
+        Map<File, String> expected = new HashMap<>();
+        for (NexusUploadSingleComponentReq.FileAssert fileAssert : req.getFileAsserts()) {
+            String path = maven2 ? mavenAssetPath(req, fileAssert) : rawAssetPath(req, fileAssert);
+            String checksum = path == null ? null : checksumByPath.get(path);
+            if (checksum != null) {
+                expected.put(fileAssert.getFile(), checksum);
+            }
+        }
+        Map<File, String> hashes = ChecksumDigest.sha256Hex(new ArrayList<>(expected.keySet()), threads);
+        List<NexusUploadSingleComponentReq.FileAssert> unchanged = new ArrayList<>();
+        for (NexusUploadSingleComponentReq.FileAssert fileAssert : req.getFileAsserts()) {
+            String hash = hashes.get(fileAssert.getFile());
+            if (hash != null && hash.equals(expected.get(fileAssert.getFile()))) {
+                unchanged.add(fileAssert);
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * maven2文件上传后在仓库中的路径。上传时没有指定classifier，Nexus按 artifactId-version.extension 命名，
+     * 没有扩展名时无法确定路径
+     */
+    static String mavenAssetPath(
+            NexusUploadSingleComponentReq req, NexusUploadSingleComponentReq.FileAssert fileAssert) {
+        String ext = fileAssert.fileExt();
+        if (Utils.isNullOrEmpty(ext)) {
+            return null;
+        }
+        return assetPath(req, req.getArtifactId() + "-" + req.getVersion() + "." + ext);
+    }
+
+    /**
+     * raw文件上传后在仓库中的路径，保留原文件名
+     */
+    static String rawAssetPath(
+            NexusUploadSingleComponentReq req, NexusUploadSingleComponentReq.FileAssert fileAssert) {
+        return assetPath(req, fileAssert.getFile().getName());
+    }
+
+    private static String assetPath(NexusUploadSingleComponentReq req, String fileName) {
+        return StringUtils.removeStart(Utils.splicePath(req.toDirectory(), fileName), "/");
+    }
+
     public void downloadFiles(List<NexusDownloadInfo> dowloadList) {
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
-            for (NexusDownloadInfo ndi : dowloadList) {
-                HttpGet httpGet = new HttpGet(ndi.getDownloadUrl());
-                if (Utils.isNotEmpty(authorization)) {
-                    httpGet.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-                }
-                httpClient.execute(httpGet, new AbstractHttpClientResponseHandler<>() {
-                    @Override
-                    public Object handleEntity(HttpEntity entity) throws IOException {
-                        File file = new File(ndi.getFilePath());
-                        FileUtils.forceMkdirParent(file);
-                        if (file.exists()) {
-                            FileUtils.delete(file);
-                        }
-                        try (FileOutputStream fos = new FileOutputStream(file)) {
-                            entity.writeTo(fos);
-                            fos.flush();
-                        }
-                        EntityUtils.consume(entity);
+        try {
+            downloadFiles(dowloadList, new NexusDownloadOptions());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NexusClientException(e);
+        }
+    }
+
+    /**
+     * 下载文件，线程数大于1时并行下载
+     *
+     * @param downloadList 下载列表
+     * @param options      下载选项
+     * @return 每个文件以及整体的下载结果
+     */
+    public NexusArtifactDownloadResult downloadFiles(List<NexusDownloadInfo> downloadList, NexusDownloadOptions options)
+            throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        NexusArtifactDownloadResult result = new NexusArtifactDownloadResult();
+        // 线程数不超过每个路由的连接数，避免等待连接超时
+        int threads = Math.min(options.getThreads(), settings.getMaxConnPerRoute());
+        threads = Math.max(1, Math.min(threads, downloadList.size()));
+        if (threads == 1) {
+            for (NexusDownloadInfo ndi : downloadList) {
+                result.getFiles().add(downloadFileResult(ndi, options));
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    threads, new NamingThreadFactory(new DaemonThreadFactory(), "nexus-download"));
+            try {
+                NexusArtifactDownloadResult.FileResult[] fileResults =
+                        new NexusArtifactDownloadResult.FileResult[downloadList.size()];
+                CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+                for (int i = 0; i < downloadList.size(); i++) {
+                    int index = i;
+                    NexusDownloadInfo ndi = downloadList.get(i);
+                    completionService.submit(() -> {
+                        fileResults[index] = downloadFileResult(ndi, options);
+                        return index;
+                    });
+                }
+                // 按完成顺序等待，出错时尽早停止；结果按下载列表的顺序返回
+                for (int i = 0; i < downloadList.size(); i++) {
+                    completionService.take().get();
+                }
+                result.getFiles().addAll(Arrays.asList(fileResults));
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof NexusClientException
+                        ? (NexusClientException) e.getCause()
+                        : new NexusClientException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        result.setSpendTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private NexusArtifactDownloadResult.FileResult downloadFileResult(
+            NexusDownloadInfo ndi, NexusDownloadOptions options) {
+        NexusArtifactDownloadResult.FileResult fileResult =
+                new NexusArtifactDownloadResult.FileResult(ndi.getFilePath());
+        long startTime = System.currentTimeMillis();
+        try {
+            File file = new File(ndi.getFilePath());
+            File validatorsDir = validatorsDir(options);
+            HttpValidators previous = validatorsDir == null ? null : HttpValidators.load(validatorsDir, file);
+            ChecksumDigest checksum = ChecksumDigest.of(ndi);
+            String expectedChecksum = checksum == null ? null : checksum.expectedValue();
+            ArtifactCache cache = Utils.isNotEmpty(options.getCacheDir()) && Utils.isNotEmpty(ndi.getCacheKey())
+                    ? ArtifactCache.of(new File(options.getCacheDir()), options.getCacheMaxSize())
+                    : null;
+            long bytes = -1;
+            if (previous != null && previous.matchesAsset(ndi.getLastModified(), expectedChecksum)) {
+                // 本地文件与Nexus Asset一致，不需要请求服务端
+                bytes = file.length();
+                fileResult.setNotModified(true);
+                fileResult.setChecksum(previous.getChecksum());
+            }
+            if (bytes < 0 && cache != null) {
+                // 有摘要时取出前校验缓存文件，不一致时删除缓存重新下载
+                bytes = cache.fetch(ndi.getCacheKey(), file, options.isCacheHardLink(), checksum);
+                fileResult.setCached(bytes >= 0);
+                if (bytes >= 0) {
+                    fileResult.setChecksum(expectedChecksum);
+                }
+                if (bytes >= 0 && validatorsDir != null) {
+                    HttpValidators validators = new HttpValidators();
+                    validators.setAssetLastModified(ndi.getLastModified());
+                    validators.setChecksum(expectedChecksum);
+                    saveValidators(validators, validatorsDir, file);
+                }
+            }
+            if (bytes < 0) {
+                bytes = downloadFile(ndi, options, previous, checksum, fileResult);
+                if (cache != null && !fileResult.isNotModified()) {
+                    storeCache(cache, ndi);
+                }
+            }
+            fileResult.setBytes(bytes);
+        } catch (IOException e) {
+            if (options.isFailFast()) {
+                throw new NexusClientException(e);
+            }
+            log.log(Level.WARNING, "Download file error. url=" + ndi.getDownloadUrl(), e);
+            fileResult.setError(e.toString());
+        }
+        fileResult.setSpendTime(System.currentTimeMillis() - startTime);
+        return fileResult;
+    }
+
+    private static void storeCache(ArtifactCache cache, NexusDownloadInfo ndi) {
+        try {
+            cache.store(ndi.getCacheKey(), new File(ndi.getFilePath()));
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Store artifact cache error. file=" + ndi.getFilePath(), e);
+        }
+    }
+
+    /**
+     * 校验信息目录，未开启校验或者没有目录时返回null
+     */
+    private static File validatorsDir(NexusDownloadOptions options) {
+        return options.isRevalidate() && Utils.isNotEmpty(options.getValidatorsDir())
+                ? new File(options.getValidatorsDir())
+                : null;
+    }
+
+    private static void saveValidators(HttpValidators validators, File dir, File file) {
+        try {
+            validators.save(dir, file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Save validators error. file=" + file, e);
+        }
+    }
+
+    /**
+     * 下载单个文件。先写入 .part 临时文件，失败重试时通过 Range 请求断点续传，下载完成后原子移动到目标位置。
+     * 开启分段下载且文件足够大时，并发下载多个字节区间到预分配的临时文件。
+     * 本地文件有校验信息时发送条件请求，服务端返回304时保留本地文件。
+     * Nexus Asset有摘要时在写入的同时计算摘要，摘要不一致时删除临时文件并重试。
+     */
+    private long downloadFile(
+            NexusDownloadInfo ndi,
+            NexusDownloadOptions options,
+            HttpValidators previous,
+            ChecksumDigest checksum,
+            NexusArtifactDownloadResult.FileResult fileResult)
+            throws IOException {
+        File file = new File(ndi.getFilePath());
+        FileUtils.forceMkdirParent(file);
+        File partFile = new File(file.getPath() + PART_FILE_SUFFIX);
+        IOException error = null;
+        for (int attempt = 0; attempt <= options.getRetries(); attempt++) {
+            if (attempt > 0) {
+                log.log(Level.WARNING, "Retry download. url={0}, attempt={1}", new Object[] {
+                    ndi.getDownloadUrl(), attempt
+                });
+            }
+            HttpValidators conditions =
+                    previous != null && previous.isConditional() && !partFile.exists() ? previous : null;
+            try {
+                Probe probe = probe(ndi, options, conditions);
+                HttpValidators received;
+                if (probe.notModified) {
+                    received = null;
+                } else if (probe.splitSize > 0) {
+                    downloadSplit(ndi.getDownloadUrl(), partFile, probe.splitSize, probe.validators, options);
+                    received = probe.validators;
+                    if (checksum != null) {
+                        // 分段并发写入无法按顺序计算摘要，下载完成后读取一次
+                        checksum.reset();
+                        checksum.catchUp(partFile);
+                    }
+                } else {
+                    received = downloadResumable(ndi.getDownloadUrl(), partFile, conditions, checksum);
+                }
+                if (received == null) {
+                    fileResult.setNotModified(true);
+                    previous.setAssetLastModified(ndi.getLastModified());
+                    saveValidators(previous, validatorsDir(options), file);
+                    return file.length();
+                }
+                if (checksum != null) {
+                    verifyChecksum(checksum, ndi.getDownloadUrl(), partFile);
+                    received.setChecksum(checksum.value());
+                    fileResult.setChecksum(checksum.value());
+                }
+                moveIntoPlace(partFile, file);
+                Files.deleteIfExists(partValidatorOf(partFile).toPath());
+                File validatorsDir = validatorsDir(options);
+                if (validatorsDir != null) {
+                    received.setAssetLastModified(ndi.getLastModified());
+                    saveValidators(received, validatorsDir, file);
+                }
+                return file.length();
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (HttpResponseException e) {
+                if (!isRetryable(e.getStatusCode())) {
+                    throw e;
+                }
+                log.log(Level.WARNING, "Download error. url=" + ndi.getDownloadUrl(), e);
+                error = e;
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Download error. url=" + ndi.getDownloadUrl(), e);
+                error = e;
+            }
+        }
+        throw error;
+    }
+
+    /**
+     * 判断是否需要分段下载，有校验信息时同时检查文件是否变化
+     */
+    private Probe probe(NexusDownloadInfo ndi, NexusDownloadOptions options, HttpValidators conditions)
+            throws IOException {
+        Probe probe = new Probe();
+        if (options.getSplitThreshold() <= 0 || options.getSplitParts() <= 1) {
+            return probe;
+        }
+        if (ndi.getFileSize() != null && ndi.getFileSize() < options.getSplitThreshold()) {
+            return probe;
+        }
+        HttpHead httpHead = new HttpHead(ndi.getDownloadUrl());
+        if (conditions != null) {
+            conditions.applyTo(httpHead);
+        }
+        return execute(httpHead, response -> {
+            if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && conditions != null) {
+                probe.notModified = true;
+                return probe;
+            }
+            Header acceptRanges = response.getFirstHeader(HttpHeaders.ACCEPT_RANGES);
+            Header contentLength = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+            if (response.getCode() == HttpStatus.SC_OK
+                    && acceptRanges != null
+                    && "bytes".equalsIgnoreCase(acceptRanges.getValue())
+                    && contentLength != null) {
+                long length = Long.parseLong(contentLength.getValue());
+                probe.splitSize = length >= options.getSplitThreshold() ? length : 0;
+                probe.validators = HttpValidators.from(response);
+            }
+            return probe;
+        });
+    }
+
+    /**
+     * 摘要不一致时删除临时文件，重试时重新下载
+     */
+    private static void verifyChecksum(ChecksumDigest checksum, String downloadUrl, File partFile)
+            throws IOException {
+        try {
+            checksum.verify(downloadUrl);
+        } catch (IOException e) {
+            deletePartFile(partFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 下载到临时文件，临时文件已存在时从已下载的位置继续下载。
+     * 续传时带上临时文件对应的ETag或Last-Modified（If-Range），服务端文件已变化时返回完整内容，不会拼接新旧内容
+     *
+     * @param conditions 条件请求的校验信息
+     * @param checksum   写入时同时计算摘要，为null时不计算
+     * @return 响应的校验信息，服务端返回304时返回null
+     */
+    private HttpValidators downloadResumable(
+            String downloadUrl, File partFile, HttpValidators conditions, ChecksumDigest checksum)
+            throws IOException {
+        String ifRange = partFile.exists() ? readPartValidator(partFile) : null;
+        if (partFile.exists() && ifRange == null) {
+            // 无法确认临时文件与服务端是同一版本，重新下载
+            log.log(Level.FINE, "Discard partial download without validator. file={0}", partFile);
+            deletePartFile(partFile);
+        }
+        final long offset = partFile.exists() ? partFile.length() : 0;
+        HttpGet httpGet = new HttpGet(downloadUrl);
+        if (offset > 0) {
+            httpGet.setHeader(HttpHeaders.RANGE, "bytes=" + offset + "-");
+            httpGet.setHeader(HttpHeaders.IF_RANGE, ifRange);
+        } else if (conditions != null) {
+            conditions.applyTo(httpGet);
+        }
+        return execute(httpGet, response -> {
+            HttpEntity entity = response.getEntity();
+            int code = response.getCode();
+            boolean append;
+            if (code == HttpStatus.SC_NOT_MODIFIED && conditions != null) {
+                EntityUtils.consume(entity);
+                return null;
+            } else if (code == HttpStatus.SC_PARTIAL_CONTENT && offset == contentRangeStart(response)) {
+                append = true;
+            } else if (code == HttpStatus.SC_OK) {
+                append = false;
+            } else if (code == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE
+                    && offset == contentRangeTotal(response)) {
+                // 临时文件已经下载完整
+                EntityUtils.consume(entity);
+                if (checksum != null) {
+                    checksum.reset();
+                    checksum.catchUp(partFile);
+                }
+                return HttpValidators.from(response);
+            } else {
+                EntityUtils.consume(entity);
+                if (code == HttpStatus.SC_PARTIAL_CONTENT || code == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                    // 临时文件与服务端内容不一致，重新下载
+                    deletePartFile(partFile);
+                }
+                throw new HttpResponseException(code, "Unexpected download response: " + response.getReasonPhrase());
+            }
+            if (entity == null) {
+                throw new IOException("Empty download response: " + downloadUrl);
+            }
+            HttpValidators received = HttpValidators.from(response);
+            if (append) {
+                log.log(Level.INFO, "Resume download from {0} bytes. url={1}", new Object[] {offset, downloadUrl});
+            } else {
+                // 重新开始写入临时文件，记录对应的版本，中断后续传时使用
+                writePartValidator(partFile, received.ifRangeValue());
+            }
+            if (checksum != null) {
+                // 续传时只补算已下载部分的摘要，新下载的字节在写入时计算
+                checksum.reset();
+                if (append) {
+                    checksum.catchUp(partFile);
+                }
+            }
+            try (InputStream in = entity.getContent();
+                    OutputStream out = checksum != null
+                            ? checksum.wrap(new FileOutputStream(partFile, append))
+                            : new FileOutputStream(partFile, append)) {
+                IOUtils.copyLarge(in, out, new byte[BUFFER_SIZE]);
+                out.flush();
+            }
+            return received;
+        });
+    }
+
+    private static File partValidatorOf(File partFile) {
+        return new File(partFile.getPath() + PART_VALIDATOR_SUFFIX);
+    }
+
+    private static String readPartValidator(File partFile) {
+        File validatorFile = partValidatorOf(partFile);
+        if (!validatorFile.isFile()) {
+            return null;
+        }
+        try {
+            String value = Files.readString(validatorFile.toPath(), StandardCharsets.UTF_8).trim();
+            return value.isEmpty() ? null : value;
+        } catch (IOException e) {
+            log.log(Level.FINE, "Read partial download validator error. file=" + validatorFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存临时文件对应的版本，服务端没有返回ETag和Last-Modified时删除，之后不会续传
+     */
+    private static void writePartValidator(File partFile, String value) throws IOException {
+        File validatorFile = partValidatorOf(partFile);
+        if (value == null) {
+            Files.deleteIfExists(validatorFile.toPath());
+        } else {
+            Files.writeString(validatorFile.toPath(), value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void deletePartFile(File partFile) throws IOException {
+        Files.deleteIfExists(partFile.toPath());
+        Files.deleteIfExists(partValidatorOf(partFile).toPath());
+    }
+
+    /**
+     * 分段并发下载到预分配大小的临时文件，各区间请求带上探测到的ETag或Last-Modified（If-Range），
+     * 下载过程中服务端文件变化时失败，不会混合新旧内容
+     */
+    private void downloadSplit(
+            String downloadUrl, File partFile, long size, HttpValidators validators, NexusDownloadOptions options)
+            throws IOException {
+        String ifRange = validators == null ? null : validators.ifRangeValue();
+        int parts = Math.max(1, Math.min(options.getSplitParts(), settings.getMaxConnPerRoute()));
+        long rangeSize = (size + parts - 1) / parts;
+        log.log(Level.INFO, "Split download. url={0}, size={1}, parts={2}", new Object[] {downloadUrl, size, parts});
+        boolean completed = false;
+        try (RandomAccessFile raf = new RandomAccessFile(partFile, "rw")) {
+            raf.setLength(size);
+            FileChannel channel = raf.getChannel();
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    parts, new NamingThreadFactory(new DaemonThreadFactory(), "nexus-download-range"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (long start = 0; start < size; start += rangeSize) {
+                    final long rangeStart = start;
+                    final long rangeEnd = Math.min(start + rangeSize, size) - 1;
+                    futures.add(executor.submit(() -> {
+                        downloadRange(downloadUrl, channel, rangeStart, rangeEnd, ifRange, options.getRetries());
                         return true;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                channel.force(false);
+                completed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading " + downloadUrl);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            if (!completed) {
+                // 预分配的临时文件长度不能表示下载进度，不能用于断点续传
+                deletePartFile(partFile);
+            }
+        }
+    }
+
+    /**
+     * 下载一个字节区间并写入到文件的对应位置，失败时从已写入的位置重试
+     */
+    private void downloadRange(
+            String downloadUrl, FileChannel channel, long start, long end, String ifRange, int retries)
+            throws IOException {
+        AtomicLong position = new AtomicLong(start);
+        for (int attempt = 0; ; attempt++) {
+            HttpGet httpGet = new HttpGet(downloadUrl);
+            httpGet.setHeader(HttpHeaders.RANGE, "bytes=" + position.get() + "-" + end);
+            if (ifRange != null) {
+                httpGet.setHeader(HttpHeaders.IF_RANGE, ifRange);
+            }
+            try {
+                execute(httpGet, response -> {
+                    HttpEntity entity = response.getEntity();
+                    if (response.getCode() != HttpStatus.SC_PARTIAL_CONTENT
+                            || position.get() != contentRangeStart(response)
+                            || entity == null) {
+                        EntityUtils.consume(entity);
+                        throw new HttpResponseException(response.getCode(), "Range request not supported");
                     }
+                    try (ReadableByteChannel src = Channels.newChannel(entity.getContent())) {
+                        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                        while (src.read(buffer) != -1) {
+                            buffer.flip();
+                            while (buffer.hasRemaining()) {
+                                position.addAndGet(channel.write(buffer, position.get()));
+                            }
+                            buffer.clear();
+                        }
+                    }
+                    return true;
+                });
+                if (position.get() != end + 1) {
+                    throw new IOException(String.format(
+                            "Incomplete range download. expected=%d, actual=%d", end + 1, position.get()));
+                }
+                return;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt >= retries) {
+                    throw e;
+                }
+                log.log(Level.WARNING, "Retry range download. url={0}, position={1}, attempt={2}", new Object[] {
+                    downloadUrl, position.get(), attempt + 1
                 });
             }
-        } catch (IOException e) {
-            throw new NexusClientException(e);
         }
     }
 
+    private static boolean isRetryable(int statusCode) {
+        return statusCode >= HttpStatus.SC_SERVER_ERROR
+                || statusCode == HttpStatus.SC_REQUEST_TIMEOUT
+                || statusCode == HttpStatus.SC_TOO_MANY_REQUESTS
+                || statusCode == HttpStatus.SC_PARTIAL_CONTENT
+                || statusCode == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+    }
+
+    private static void moveIntoPlace(File source, File target) throws IOException {
+        try {
+            Files.move(
+                    source.toPath(),
+                    target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Content-Range: bytes start-end/total
+     */
+    private static long contentRangeStart(HttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+        if (header == null) {
+            return -1;
+        }
+        String value = StringUtils.substringAfter(header.getValue(), "bytes ");
+        return NumberUtils.toLong(StringUtils.substringBefore(value, "-"), -1);
+    }
+
+    // Content-Range: bytes */total
+    private static long contentRangeTotal(HttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+        if (header == null) {
+            return -1;
+        }
+        return NumberUtils.toLong(StringUtils.substringAfterLast(header.getValue(), "/"), -1);
+    }
+
     public void deleteComponents(Set<String> componentIds) {
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
+        try {
             for (String id : componentIds) {
                 HttpDelete httpDelete = new HttpDelete(url + "/service/rest/v1/components/" + id);
-                if (Utils.isNotEmpty(authorization)) {
-                    httpDelete.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-                }
-                httpClient.execute(httpDelete, new BasicHttpClientResponseHandler());
+                execute(httpDelete, new BasicHttpClientResponseHandler());
             }
         } catch (IOException e) {
             throw new NexusClientException(e);
@@ -313,21 +1372,42 @@ public class NexusRepositoryClient implements Serializable {
         } else {
             imageName = req.getArtifactId();
         }
-        try (CloseableHttpClient httpClient = HttpUtils.createClient()) {
-            HttpGet request = new HttpGet(String.format("%s/v2/%s/tags/list", url, imageName));
-            if (Utils.isNotEmpty(authorization)) {
-                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
-            }
-            return httpClient.execute(request, new AbstractHttpClientResponseHandler<SearchDockerTagsResp>() {
+        try {
+            HttpGet request = apiGet(String.format("%s/v2/%s/tags/list", url, imageName));
+            return execute(request, new AbstractHttpClientResponseHandler<SearchDockerTagsResp>() {
                 @Override
                 public SearchDockerTagsResp handleEntity(HttpEntity entity) throws IOException {
-                    byte[] bs = EntityUtils.toByteArray(entity);
-                    EntityUtils.consume(entity);
-                    return JSON.parseObject(bs, SearchDockerTagsResp.class);
+                    try (InputStream in = entity.getContent()) {
+                        return JsonStreams.read(in, SearchDockerTagsResp.class);
+                    }
                 }
             });
         } catch (IOException e) {
             throw new NexusClientException(e);
         }
     }
+
+    /**
+     * 上传一个批次的文件
+     */
+    @FunctionalInterface
+    private interface BatchUploader {
+        void upload(List<NexusUploadSingleComponentReq.FileAssert> batch) throws IOException;
+    }
+
+    private static final class Probe {
+        private long splitSize;
+        private boolean notModified;
+        private HttpValidators validators;
+    }
+
+    private static final class Validated<T> {
+        private final HttpValidators validators;
+        private final T value;
+
+        private Validated(HttpValidators validators, T value) {
+            this.validators = validators;
+            this.value = value;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.java.Log;
+
+/**
+ * Controller上共享的仓库详情缓存，按 (serverId, repository) 缓存。仓库的格式、类型和地址几乎不会变化，
+ * 构建步骤和参数页面不需要每次都请求Nexus。保存全局配置时清空缓存。
+ * 查询到的仓库详情随Callable一起发送到Agent，Agent上不再查询。maven2 hosted仓库同时查询版本策略。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-23
+ */
+@Log
+public final class RepositoryDetailsCache {
+
+    private static final int MAX_SIZE = 256;
+
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final ExpiringLruCache<Key, NexusRepositoryDetails> CACHE =
+            new ExpiringLruCache<>(MAX_SIZE, TTL_MILLIS);
+
+    private static final SingleFlight<Key, NexusRepositoryDetails> FLIGHT = new SingleFlight<>();
+
+    private RepositoryDetailsCache() {}
+
+    /**
+     * 获取仓库详情，缓存中没有时查询Nexus
+     */
+    public static NexusRepositoryDetails get(NexusRepositoryClient client, String repository) {
+        Key key = keyOf(client, repository);
+        NexusRepositoryDetails details = CACHE.get(key);
+        if (details != null) {
+            return details;
+        }
+        return FLIGHT.execute(key, () -> load(client, key));
+    }
+
+    /**
+     * 查询Nexus并更新缓存，用于配置页面的校验
+     */
+    public static NexusRepositoryDetails refresh(NexusRepositoryClient client, String repository) {
+        return load(client, keyOf(client, repository));
+    }
+
+    public static void invalidate(String serverId) {
+        CACHE.invalidateIf(key -> Objects.equals(serverId, key.server));
+    }
+
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    public static ExpiringLruCache<?, NexusRepositoryDetails> getCache() {
+        return CACHE;
+    }
+
+    private static NexusRepositoryDetails load(NexusRepositoryClient client, Key key) {
+        NexusRepositoryDetails details = client.getRepositoryDetails(key.repository);
+        if (details.getMaven() == null
+                && NexusRepositoryFormat.maven2.matches(details.getFormat())
+                && NexusRepositoryType.hosted.name().equals(details.getType())) {
+            loadMavenAttributes(client, details);
+        }
+        CACHE.put(key, details);
+        return details;
+    }
+
+    /**
+     * 查询maven2 hosted仓库的版本策略，失败时不设置，按版本策略未知处理
+     */
+    private static void loadMavenAttributes(NexusRepositoryClient client, NexusRepositoryDetails details) {
+        try {
+            details.setMaven(client.getMavenHostedAttributes(details.getName()));
+        } catch (NexusClientException e) {
+            log.log(Level.FINE, "Get maven attributes error. repository=" + details.getName(), e);
+        }
+    }
+
+    private static Key keyOf(NexusRepositoryClient client, String repository) {
+        String server = Utils.isNotEmpty(client.getServerId()) ? client.getServerId() : client.getUrl();
+        return new Key(server, repository);
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    private static final class Key {
+        /**
+         * Nexus Server ID，没有时为Server URL
+         */
+        private final String server;
+
+        private final String repository;
+
+        private Key(String server, String repository) {
+            this.server = server;
+            this.repository = repository;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * 统计API响应（JSON、XML）在网络上传输的字节数和解压后的字节数，用于观察压缩效果。
+ * 下载的文件不计入统计。
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-22
+ */
+public class ResponseStats {
+
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    /**
+     * 放在解压之前（靠近网络的一侧），统计传输的字节数
+     */
+    public ExecChainHandler wireCounter() {
+        return (request, scope, chain) -> {
+            ClassicHttpResponse response = chain.proceed(request, scope);
+            HttpEntity entity = response.getEntity();
+            if (isApiResponse(entity)) {
+                responses.incrementAndGet();
+                Header encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+                if (encoding != null && !"identity".equalsIgnoreCase(encoding.getValue())) {
+                    compressedResponses.incrementAndGet();
+                }
+                response.setEntity(new CountingEntity(entity, wireBytes));
+            }
+            return response;
+        };
+    }
+
+    /**
+     * 放在解压之后（靠近调用方的一侧），统计解压后的字节数
+     */
+    public ExecChainHandler decodedCounter() {
+        return (request, scope, chain) -> {
+            ClassicHttpResponse response = chain.proceed(request, scope);
+            HttpEntity entity = response.getEntity();
+            if (isApiResponse(entity)) {
+                response.setEntity(new CountingEntity(entity, decodedBytes));
+            }
+            return response;
+        };
+    }
+
+    public long getResponses() {
+        return responses.get();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.get();
+    }
+
+    public long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    /**
+     * 压缩节省的流量，百分比
+     */
+    public double getSavedPercent() {
+        long decoded = decodedBytes.get();
+        return decoded <= 0 ? 0 : Math.max(0, decoded - wireBytes.get()) * 100.0 / decoded;
+    }
+
+    public void reset() {
+        responses.set(0);
+        compressedResponses.set(0);
+        wireBytes.set(0);
+        decodedBytes.set(0);
+    }
+
+    private static boolean isApiResponse(HttpEntity entity) {
+        if (entity == null || entity.getContentType() == null) {
+            return false;
+        }
+        String contentType = entity.getContentType().toLowerCase();
+        return contentType.contains("json") || contentType.contains("xml");
+    }
+
+    /**
+     * 读取响应体时累计字节数
+     */
+    private static final class CountingEntity extends HttpEntityWrapper {
+
+        private final AtomicLong counter;
+
+        private CountingEntity(HttpEntity entity, AtomicLong counter) {
+            super(entity);
+            this.counter = counter;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            InputStream in = super.getContent();
+            if (in == null) {
+                return null;
+            }
+            return new ProxyInputStream(in) {
+                @Override
+                protected void afterRead(int n) {
+                    if (n > 0) {
+                        counter.addAndGet(n);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                if (in != null) {
+                    in.transferTo(out);
+                }
+            }
+        }
+    }
+}
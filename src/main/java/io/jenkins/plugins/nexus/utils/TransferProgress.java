@@ -0,0 +1,80 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.util.function.Consumer;
+import lombok.Getter;
+
+/**
+ * 传输进度，按百分比步进或时间间隔输出，文件很多时不会逐个文件打印日志
+ *
+ * @author Bruce.Wu
+ * @date 2024-08-15
+ */
+public class TransferProgress {
+
+    private static final int PERCENT_STEP = 10;
+
+    private static final long LOG_INTERVAL_MILLIS = 30_000;
+
+    private final String action;
+
+    private final int totalFiles;
+
+    private final long totalBytes;
+
+    private final Consumer<String> printer;
+
+    private final long startTime = System.currentTimeMillis();
+
+    @Getter
+    private int files;
+
+    @Getter
+    private long bytes;
+
+    private int lastPercent;
+
+    private long lastLogTime = startTime;
+
+    /**
+     * @param action     动作名称，例如 Uploaded
+     * @param totalFiles 文件总数
+     * @param totalBytes 文件总大小
+     * @param printer    日志输出
+     */
+    public TransferProgress(String action, int totalFiles, long totalBytes, Consumer<String> printer) {
+        this.action = action;
+        this.totalFiles = totalFiles;
+        this.totalBytes = totalBytes;
+        this.printer = printer;
+    }
+
+    /**
+     * 记录完成的文件，只在调用方线程中使用
+     */
+    public void completed(int files, long bytes) {
+        this.files += files;
+        this.bytes += bytes;
+        long now = System.currentTimeMillis();
+        int percent = totalFiles <= 0 ? 100 : (int) (this.files * 100L / totalFiles);
+        if (this.files >= totalFiles
+                || percent >= lastPercent + PERCENT_STEP
+                || now - lastLogTime >= LOG_INTERVAL_MILLIS) {
+            lastPercent = percent - percent % PERCENT_STEP;
+            lastLogTime = now;
+            printer.accept(String.format(
+                    "%s %d/%d files (%d%%), %s/%s, speed: %s/s",
+                    action,
+                    this.files,
+                    totalFiles,
+                    percent,
+                    Utils.formatBytes(this.bytes),
+                    Utils.formatBytes(totalBytes),
+                    Utils.formatBytes(bytesPerSecond(now))));
+        }
+    }
+
+    private long bytesPerSecond(long now) {
+        long millis = now - startTime;
+        return millis <= 0 ? bytes : bytes * 1000 / millis;
+    }
+}
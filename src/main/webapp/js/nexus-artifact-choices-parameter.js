@@ -11,46 +11,95 @@ function objectToUrlFormEncoded(parameters) {
     return formBody.join("&");
 }
 
+// the select shows one window of versions at a time, so the DOM stays small however many tags there are
+const VERSION_PAGE_SIZE = 100
+
 function filterVersionOptions(e) {
     if (e.key === 'Enter') {
         const searchInput = e.currentTarget;
-        const BASE_URL = document.getElementById("nexusArtifactChoiceBaseUrl").value;
-        let serverId = document.getElementById("nexusArtifactChoiceServerId").value;
-        let repository = document.getElementById("nexusArtifactChoiceRepository").value;
-        let limits = document.getElementById("nexusArtifactChoiceMaxVersionCount").value;
         const selectElement = searchInput.previousElementSibling;
-        const option = selectElement.getAttribute("group-artifact-id");
         selectElement.disabled = true
-        fetch(BASE_URL + "/fillVersionOptionsItems", {
-            method: "post",
-            headers: crumb.wrap({
-                "Content-Type": "application/x-www-form-urlencoded"
-            }),
-            body: objectToUrlFormEncoded({
-                serverId: serverId,
-                repository: repository,
-                option: option,
-                limits: limits,
-                keyword: searchInput.value,
-            })
-        }).then(response => response.json())
-            .then(resp => {
-                selectElement.innerHTML = ''
-                resp.values.forEach(subOption => {
-                    let optionElement = document.createElement('option')
-                    optionElement.value = subOption.value
-                    optionElement.textContent = subOption.name
-                    selectElement.appendChild(optionElement)
-                });
-            })
-            .finally(() => {
-                selectElement.disabled = false;
-                updateNexusArtifactChoicesValue();
-            });
+        // search versions containing the keyword on the server, only the first page is loaded
+        selectElement.setAttribute("version-keyword", searchInput.value)
+        showVersionWindow(selectElement, 0)
         e.preventDefault();
     }
 }
 
+function fetchVersionPage(selectElement, offset) {
+    const BASE_URL = document.getElementById("nexusArtifactChoiceBaseUrl").value;
+    let serverId = document.getElementById("nexusArtifactChoiceServerId").value;
+    let repository = document.getElementById("nexusArtifactChoiceRepository").value;
+    let limits = document.getElementById("nexusArtifactChoiceMaxVersionCount").value;
+    return fetch(BASE_URL + "/versionOptionsPage", {
+        method: "post",
+        headers: crumb.wrap({
+            "Content-Type": "application/x-www-form-urlencoded"
+        }),
+        body: objectToUrlFormEncoded({
+            serverId: serverId,
+            repository: repository,
+            option: selectElement.getAttribute("group-artifact-id"),
+            limits: limits,
+            keyword: selectElement.getAttribute("version-keyword") || "",
+            offset: offset,
+            size: VERSION_PAGE_SIZE,
+        })
+    }).then(response => response.json())
+        .then(resp => resp.data)
+}
+
+// the first and last options of a select move the window to the previous or next page
+function setVersionTotal(selectElement, total) {
+    selectElement.querySelectorAll("option[version-page]").forEach(e => e.remove())
+    let offset = parseInt(selectElement.getAttribute("version-offset") || "0")
+    let shown = selectElement.options.length
+    if (offset > 0) {
+        let previous = document.createElement('option')
+        previous.value = ''
+        previous.setAttribute("version-page", String(Math.max(0, offset - VERSION_PAGE_SIZE)))
+        previous.textContent = "Previous " + VERSION_PAGE_SIZE + "..."
+        selectElement.insertBefore(previous, selectElement.firstChild)
+    }
+    if (offset + shown < total) {
+        let next = document.createElement('option')
+        next.value = ''
+        next.setAttribute("version-page", String(offset + shown))
+        next.textContent = "Next... (" + (offset + 1) + "-" + (offset + shown) + " of " + total + ")"
+        selectElement.appendChild(next)
+    }
+    selectElement.parentElement.style.display = ''
+}
+
+// replace the options of a select with the page of versions starting at offset
+function showVersionWindow(selectElement, offset) {
+    selectElement.disabled = true
+    return fetchVersionPage(selectElement, offset)
+        .then(page => {
+            selectElement.innerHTML = ''
+            selectElement.setAttribute("version-offset", String(offset))
+            appendVersionOptions(selectElement, page.values)
+            setVersionTotal(selectElement, page.total)
+            // select the first version of the window
+            let first = Array.from(selectElement.options).findIndex(e => !e.hasAttribute("version-page"))
+            selectElement.selectedIndex = first
+        })
+        .finally(() => {
+            selectElement.disabled = false
+            updateNexusArtifactChoicesValue()
+        })
+}
+
+function onVersionSelectChange(e) {
+    const selectElement = e.currentTarget
+    let option = selectElement.options[selectElement.selectedIndex]
+    if (option && option.hasAttribute("version-page")) {
+        showVersionWindow(selectElement, parseInt(option.getAttribute("version-page")))
+        return
+    }
+    updateNexusArtifactChoicesValue()
+}
+
 function updateVersionOptions(select) {
     const BASE_URL = document.getElementById("nexusArtifactChoiceBaseUrl").value;
     let serverId = document.getElementById("nexusArtifactChoiceServerId").value;
@@ -61,61 +110,127 @@ function updateVersionOptions(select) {
     let selectedOptions = Array.from(select.selectedOptions).map(e => e.value)
 
     container.innerHTML = ''
-    select.disabled = true
-    let promises = []
-    for (let i = 0; i < selectedOptions.length; i++) {
-        const option = selectedOptions.at(i)
-        const selectName = option.replaceAll(".", "-").replaceAll(":", "-")
-        const promise = fetch(BASE_URL + "/fillVersionOptionsItems", {
-            method: "post",
-            headers: crumb.wrap({
-                "Content-Type": "application/x-www-form-urlencoded"
-            }),
-            body: objectToUrlFormEncoded({
-                serverId: serverId,
-                repository: repository,
-                option: option,
-                limits: limits
-            })
-        }).then(response => response.json())
-            .then(resp => {
-                if (resp.values.length > 0) {
-                    let selectSearchDiv = document.createElement('div')
-                    selectSearchDiv.style.marginBottom = '5px'
-                    selectSearchDiv.style.padding = '1px'
-
-                    let selectElement = document.createElement('select')
-                    resp.values.forEach(subOption => {
-                        let optionElement = document.createElement('option')
-                        optionElement.value = subOption.value
-                        optionElement.textContent = subOption.name
-                        selectElement.appendChild(optionElement)
-                    });
-                    selectElement.name = selectName
-                    selectElement.style.marginBottom = '7px'
-                    selectElement.style.padding = '1px'
-                    selectElement.setAttribute("group-artifact-id", option)
-                    selectElement.setAttribute("nexus-artifact-choice-version-select", "true")
-                    selectElement.addEventListener("change", updateNexusArtifactChoicesValue)
-
-                    let searchInput = document.createElement('input')
-                    searchInput.type = 'text'
-                    searchInput.style.marginLeft = '5px'
-                    searchInput.addEventListener("keydown", filterVersionOptions)
-
-                    selectSearchDiv.appendChild(selectElement)
-                    selectSearchDiv.appendChild(searchInput)
-
-                    container.appendChild(selectSearchDiv)
-                }
-            })
-        promises.push(promise)
+    if (selectedOptions.length === 0) {
+        updateNexusArtifactChoicesValue()
+        return
     }
+    select.disabled = true
+    // create the selects in the selected order, each one is shown when its first page arrives
+    let versionSelects = {}
+    selectedOptions.forEach(option => {
+        versionSelects[option] = appendVersionSelect(container, option)
+    })
+    // the server pushes one line per resolved page of versions
+    fetch(BASE_URL + "/streamVersionOptions", {
+        method: "post",
+        headers: crumb.wrap({
+            "Content-Type": "application/x-www-form-urlencoded"
+        }),
+        body: objectToUrlFormEncoded({
+            serverId: serverId,
+            repository: repository,
+            options: selectedOptions.join("\n"),
+            limits: limits,
+            pageSize: VERSION_PAGE_SIZE
+        })
+    }).then(response => readLines(response, line => {
+        let resp = JSON.parse(line)
+        let versionSelect = versionSelects[resp.option]
+        if (versionSelect && resp.values) {
+            appendVersionOptions(versionSelect, resp.values)
+            updateNexusArtifactChoicesValue()
+        } else if (versionSelect && resp.error !== undefined) {
+            showVersionError(versionSelect, resp.error)
+        } else if (versionSelect && resp.total !== undefined) {
+            setVersionTotal(versionSelect, resp.total)
+        }
+    }))
+        .finally(() => {
+            select.disabled = false
+            updateNexusArtifactChoicesValue()
+        })
+}
 
-    Promise.all(promises).finally(() => {
-        select.disabled = false
-        updateNexusArtifactChoicesValue()
+// read a newline delimited response line by line, reads the whole body when streams are not supported
+function readLines(response, onLine) {
+    const handle = text => text.split("\n")
+        .filter(line => line.trim().length > 0)
+        .forEach(onLine)
+    if (!response.body || !response.body.getReader || typeof TextDecoder === 'undefined') {
+        return response.text().then(handle)
+    }
+    const reader = response.body.getReader()
+    const decoder = new TextDecoder()
+    let buffer = ''
+    const read = () => reader.read().then(result => {
+        if (result.done) {
+            handle(buffer + decoder.decode())
+            return
+        }
+        buffer += decoder.decode(result.value, {stream: true})
+        let end = buffer.lastIndexOf("\n")
+        if (end >= 0) {
+            handle(buffer.substring(0, end))
+            buffer = buffer.substring(end + 1)
+        }
+        return read()
     })
+    return read()
+}
+
+function appendVersionSelect(container, option) {
+    const selectName = option.replaceAll(".", "-").replaceAll(":", "-")
+    let selectSearchDiv = document.createElement('div')
+    selectSearchDiv.style.marginBottom = '5px'
+    selectSearchDiv.style.padding = '1px'
+    // hidden until versions arrive
+    selectSearchDiv.style.display = 'none'
+
+    let selectElement = document.createElement('select')
+    selectElement.name = selectName
+    selectElement.style.marginBottom = '7px'
+    selectElement.style.padding = '1px'
+    selectElement.setAttribute("group-artifact-id", option)
+    selectElement.setAttribute("nexus-artifact-choice-version-select", "true")
+    selectElement.addEventListener("change", onVersionSelectChange)
+
+    let searchInput = document.createElement('input')
+    searchInput.type = 'text'
+    searchInput.style.marginLeft = '5px'
+    searchInput.addEventListener("keydown", filterVersionOptions)
+
+    selectSearchDiv.appendChild(selectElement)
+    selectSearchDiv.appendChild(searchInput)
+
+    container.appendChild(selectSearchDiv)
+    return selectElement
+}
+
+// a failed lookup is shown next to the select, so it is not mistaken for an artifact without versions
+function showVersionError(selectElement, message) {
+    let container = selectElement.parentElement
+    let errorDiv = container.querySelector("div[version-error='true']")
+    if (!errorDiv) {
+        errorDiv = document.createElement('div')
+        errorDiv.className = 'error'
+        errorDiv.setAttribute("version-error", "true")
+        container.appendChild(errorDiv)
+    }
+    errorDiv.textContent = selectElement.getAttribute("group-artifact-id") + ": failed to load versions, " + message
+    container.style.display = ''
+}
+
+function appendVersionOptions(selectElement, values) {
+    if (values.length === 0) {
+        return
+    }
+    values.forEach(subOption => {
+        let optionElement = document.createElement('option')
+        optionElement.value = subOption.value
+        optionElement.textContent = subOption.name
+        selectElement.appendChild(optionElement)
+    });
+    selectElement.parentElement.style.display = ''
 }
 
 
@@ -126,6 +241,10 @@ function updateNexusArtifactChoicesValue() {
     for (let i = 0; i < selects.length; i++) {
         let select = selects.item(i);
         let option = select.options[select.selectedIndex];
+        if (!option || option.hasAttribute("version-page")) {
+            // versions not loaded yet
+            continue;
+        }
         if (nexusArtifactChoicesValue.value.length > 0) {
             nexusArtifactChoicesValue.value += ","
         }
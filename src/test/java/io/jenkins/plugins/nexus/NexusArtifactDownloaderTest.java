@@ -0,0 +1,39 @@
+package io.jenkins.plugins.nexus;
+
+import hudson.util.XStream2;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-28
+ */
+public class NexusArtifactDownloaderTest {
+
+    @Test
+    public void testReadResolveDefaults() {
+        // 旧版本保存的配置没有下载参数
+        String xml = "<io.jenkins.plugins.nexus.NexusArtifactDownloader>"
+                + "<serverId>nexus</serverId><repository>releases</repository>"
+                + "<groupId>com.example</groupId><artifactId>demo</artifactId><version>1.0</version>"
+                + "<maxAssertNum>50</maxAssertNum>"
+                + "</io.jenkins.plugins.nexus.NexusArtifactDownloader>";
+        NexusArtifactDownloader downloader = (NexusArtifactDownloader) new XStream2().fromXML(xml);
+        Assertions.assertEquals(4, downloader.getDownloadThreads());
+        Assertions.assertEquals(2, downloader.getRetries());
+        Assertions.assertEquals(4, downloader.getSplitParts());
+        Assertions.assertEquals(2048, downloader.getCacheMaxSizeMb());
+    }
+
+    @Test
+    public void testReadResolveKeepsZeroRetries() {
+        NexusArtifactDownloader downloader =
+                new NexusArtifactDownloader("nexus", "releases", "com.example", "demo", "1.0");
+        downloader.setRetries(0);
+        downloader.setDownloadThreads(8);
+        XStream2 xStream = new XStream2();
+        NexusArtifactDownloader loaded = (NexusArtifactDownloader) xStream.fromXML(xStream.toXML(downloader));
+        Assertions.assertEquals(0, loaded.getRetries());
+        Assertions.assertEquals(8, loaded.getDownloadThreads());
+    }
+}
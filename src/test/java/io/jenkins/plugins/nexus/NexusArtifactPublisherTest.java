@@ -0,0 +1,37 @@
+package io.jenkins.plugins.nexus;
+
+import hudson.util.XStream2;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-28
+ */
+public class NexusArtifactPublisherTest {
+
+    @Test
+    public void testReadResolveDefaults() {
+        // 旧版本保存的配置没有上传参数
+        String xml = "<io.jenkins.plugins.nexus.NexusArtifactPublisher>"
+                + "<serverId>nexus</serverId><repository>releases</repository>"
+                + "<groupId>com.example</groupId><artifactId>demo</artifactId><version>1.0</version>"
+                + "<generatePom>false</generatePom><packing>jar</packing><includes>*.jar</includes>"
+                + "</io.jenkins.plugins.nexus.NexusArtifactPublisher>";
+        NexusArtifactPublisher publisher = (NexusArtifactPublisher) new XStream2().fromXML(xml);
+        Assertions.assertEquals(4, publisher.getUploadThreads());
+        Assertions.assertEquals(2, publisher.getRetries());
+    }
+
+    @Test
+    public void testReadResolveKeepsZeroRetries() {
+        NexusArtifactPublisher publisher =
+                new NexusArtifactPublisher("nexus", "releases", "com.example", "demo", "1.0", "*.jar");
+        publisher.setRetries(0);
+        publisher.setUploadThreads(8);
+        XStream2 xStream = new XStream2();
+        NexusArtifactPublisher loaded = (NexusArtifactPublisher) xStream.fromXML(xStream.toXML(publisher));
+        Assertions.assertEquals(0, loaded.getRetries());
+        Assertions.assertEquals(8, loaded.getUploadThreads());
+    }
+}
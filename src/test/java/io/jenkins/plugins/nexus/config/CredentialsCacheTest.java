@@ -0,0 +1,84 @@
+package io.jenkins.plugins.nexus.config;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-24
+ */
+@WithJenkins
+public class CredentialsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        CredentialsCache.invalidateAll();
+    }
+
+    @Test
+    public void testFind(JenkinsRule j) throws Exception {
+        addCredentials("nexus", "admin");
+
+        StandardUsernameCredentials found = CredentialsCache.find(StandardUsernameCredentials.class, "nexus");
+        Assertions.assertNotNull(found);
+        Assertions.assertEquals("admin", found.getUsername());
+        Assertions.assertNull(CredentialsCache.find(StandardUsernameCredentials.class, "missing"));
+        Assertions.assertNull(CredentialsCache.find(StandardUsernameCredentials.class, null));
+    }
+
+    @Test
+    public void testSaveInvalidates(JenkinsRule j) throws Exception {
+        Assertions.assertNull(CredentialsCache.find(StandardUsernameCredentials.class, "nexus"));
+
+        // 只修改内存中的凭据不会通知，仍然使用已建立的索引
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(credentials("nexus", "admin"));
+        Assertions.assertNull(CredentialsCache.find(StandardUsernameCredentials.class, "nexus"));
+
+        provider.save();
+        Assertions.assertNotNull(CredentialsCache.find(StandardUsernameCredentials.class, "nexus"));
+    }
+
+    @Test
+    public void testAuthorization(JenkinsRule j) {
+        Assertions.assertEquals("Basic a", CredentialsCache.getAuthorization("a", this::load));
+        Assertions.assertEquals("Basic a", CredentialsCache.getAuthorization("a", this::load));
+        Assertions.assertEquals(1, loads.get());
+
+        // 没有凭据的结果也缓存
+        Assertions.assertNull(CredentialsCache.getAuthorization("missing", this::load));
+        Assertions.assertNull(CredentialsCache.getAuthorization("missing", this::load));
+        Assertions.assertEquals(2, loads.get());
+
+        CredentialsCache.invalidateAll();
+        CredentialsCache.getAuthorization("a", this::load);
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertNull(CredentialsCache.getAuthorization("", this::load));
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    private String load(String credentialsId) {
+        loads.incrementAndGet();
+        return "missing".equals(credentialsId) ? null : "Basic " + credentialsId;
+    }
+
+    private static void addCredentials(String id, String username) throws Exception {
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(credentials(id, username));
+        provider.save();
+    }
+
+    private static UsernamePasswordCredentialsImpl credentials(String id, String username) throws Exception {
+        return new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, id, null, username, "secret");
+    }
+}
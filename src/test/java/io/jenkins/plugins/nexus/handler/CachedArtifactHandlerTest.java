@@ -0,0 +1,149 @@
+package io.jenkins.plugins.nexus.handler;
+
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
+import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
+import io.jenkins.plugins.nexus.utils.NexusClientException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class CachedArtifactHandlerTest {
+
+    private static final String OPTION = "com.example:demo";
+
+    private static final String BROKEN_OPTION = "com.example:broken";
+
+    /**
+     * 仓库中的全部版本，最新的在前
+     */
+    private static final List<String> VERSIONS = Arrays.asList("1.3.0", "1.2.0", "1.1.0", "1.0.0-rc1", "0.9.0");
+
+    private final NexusRepoServerConfig serverConfig = new NexusRepoServerConfig("test", "test", "http://nexus");
+
+    private StubHandler delegate;
+
+    private CachedArtifactHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        CachedArtifactHandler.invalidateAll();
+        delegate = new StubHandler();
+        handler = new CachedArtifactHandler(delegate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CachedArtifactHandler.invalidateAll();
+    }
+
+    @Test
+    public void testSearchWholeRepository() {
+        // 缓存中只有最新的2个版本，搜索时仍然在整个仓库中查询
+        List<String> cached = valuesOf(handler.getItems(serverConfig, OPTION, "r", 2));
+        Assertions.assertEquals(Arrays.asList("1.3.0", "1.2.0"), cached);
+        Assertions.assertEquals(
+                Arrays.asList("1.0.0-rc1"), valuesOf(handler.searchItems(serverConfig, OPTION, "r", 2, "rc")));
+        Assertions.assertEquals(
+                Arrays.asList("1.1.0"), valuesOf(handler.searchItems(serverConfig, OPTION, "r", 2, "1.1")));
+        Assertions.assertEquals(2, delegate.searches.get());
+    }
+
+    @Test
+    public void testWarmAndColdConsistent() {
+        List<String> cold = valuesOf(handler.searchItems(serverConfig, OPTION, "r", 2, "0.9"));
+        CachedArtifactHandler.invalidateAll();
+        handler.getItems(serverConfig, OPTION, "r", 2);
+        List<String> warm = valuesOf(handler.searchItems(serverConfig, OPTION, "r", 2, "0.9"));
+        Assertions.assertEquals(Arrays.asList("0.9.0"), cold);
+        Assertions.assertEquals(cold, warm);
+    }
+
+    @Test
+    public void testPageByKeyword() {
+        VersionIndex.Page page = handler.getPage(serverConfig, OPTION, "r", 10, "1.", 0, 2);
+        Assertions.assertEquals(4, page.getTotal());
+        Assertions.assertEquals(Arrays.asList("1.3.0", "1.2.0"), valuesOf(page.getItems()));
+        page = handler.getPage(serverConfig, OPTION, "r", 10, "1.", 2, 2);
+        Assertions.assertEquals(Arrays.asList("1.1.0", "1.0.0-rc1"), valuesOf(page.getItems()));
+        // 搜索结果按关键字缓存，翻页不再查询
+        Assertions.assertEquals(1, delegate.searches.get());
+        Assertions.assertEquals(0, delegate.lists.get());
+
+        page = handler.getPage(serverConfig, OPTION, "r", 10, "", 0, 10);
+        Assertions.assertEquals(VERSIONS.size(), page.getTotal());
+        Assertions.assertEquals(1, delegate.lists.get());
+    }
+
+    @Test
+    public void testStreamReportsFailedOption() {
+        Map<String, List<String>> pages = new ConcurrentHashMap<>();
+        Map<String, Throwable> errors = new ConcurrentHashMap<>();
+        handler.streamItems(
+                serverConfig,
+                Arrays.asList(BROKEN_OPTION, OPTION),
+                "r",
+                10,
+                (option, page) -> pages.computeIfAbsent(option, k -> new CopyOnWriteArrayList<>())
+                        .addAll(valuesOf(page)),
+                errors::put);
+        // 查询失败的option通过错误回调返回，不会当作没有版本
+        Assertions.assertEquals(VERSIONS, pages.get(OPTION));
+        Assertions.assertFalse(pages.containsKey(BROKEN_OPTION));
+        Assertions.assertEquals(Collections.singleton(BROKEN_OPTION), errors.keySet());
+    }
+
+    private static List<String> valuesOf(ListBoxModel items) {
+        return items.stream().map(e -> e.value).collect(Collectors.toList());
+    }
+
+    private static class StubHandler implements ArtifactHandler {
+        private final AtomicInteger lists = new AtomicInteger();
+        private final AtomicInteger searches = new AtomicInteger();
+
+        @Override
+        public ListBoxModel getItems(
+                NexusRepoServerConfig serverConfig, String option, String repository, int limits) {
+            if (BROKEN_OPTION.equals(option)) {
+                throw new NexusClientException("Nexus unavailable");
+            }
+            lists.incrementAndGet();
+            return itemsOf(null, limits);
+        }
+
+        @Override
+        public ListBoxModel searchItems(
+                NexusRepoServerConfig serverConfig, String option, String repository, int limits, String keyword) {
+            searches.incrementAndGet();
+            return itemsOf(keyword, limits);
+        }
+
+        @Override
+        public GetLoginPasswordResult getLoginPassword(NexusRepoServerConfig serverConfig) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static ListBoxModel itemsOf(String keyword, int limits) {
+            ListBoxModel items = new ListBoxModel();
+            for (String version : VERSIONS) {
+                if (items.size() < limits && (keyword == null || version.contains(keyword))) {
+                    items.add(version, version);
+                }
+            }
+            return items;
+        }
+    }
+}
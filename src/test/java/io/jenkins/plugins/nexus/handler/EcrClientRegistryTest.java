@@ -0,0 +1,102 @@
+package io.jenkins.plugins.nexus.handler;
+
+import com.amazonaws.services.ecr.AmazonECR;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-25
+ */
+public class EcrClientRegistryTest {
+
+    private static final String SERVER_URL = "https://ecr.example.com";
+
+    private final EcrClientRegistry.Key key = new EcrClientRegistry.Key("ecr", "us-east-1", "aws");
+
+    private final List<AtomicInteger> shutdowns = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        EcrClientRegistry.invalidateAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        EcrClientRegistry.invalidateAll();
+    }
+
+    @Test
+    public void testReuseWhileFingerprintUnchanged() {
+        EcrClientRegistry.PooledEcr first = EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory());
+        first.release();
+        EcrClientRegistry.PooledEcr second = EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory());
+        second.release();
+        Assertions.assertSame(first.getClient(), second.getClient());
+        Assertions.assertEquals(1, shutdowns.size());
+        Assertions.assertEquals(0, shutdowns.get(0).get());
+    }
+
+    @Test
+    public void testReplacedClientClosedAfterRelease() {
+        EcrClientRegistry.PooledEcr first = EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory());
+        EcrClientRegistry.PooledEcr second = EcrClientRegistry.acquire(key, SERVER_URL, "fp2", factory());
+        Assertions.assertNotSame(first.getClient(), second.getClient());
+        // 旧客户端仍有请求在执行，不能关闭
+        Assertions.assertEquals(0, shutdowns.get(0).get());
+        first.release();
+        Assertions.assertEquals(1, shutdowns.get(0).get());
+        second.release();
+        Assertions.assertEquals(0, shutdowns.get(1).get());
+    }
+
+    @Test
+    public void testInvalidateAllWaitsForInFlight() {
+        EcrClientRegistry.PooledEcr pooled = EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory());
+        EcrClientRegistry.invalidateAll();
+        Assertions.assertEquals(0, shutdowns.get(0).get());
+        pooled.release();
+        Assertions.assertEquals(1, shutdowns.get(0).get());
+        // 已移除的客户端不再分配
+        EcrClientRegistry.PooledEcr next = EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory());
+        next.release();
+        Assertions.assertNotSame(pooled.getClient(), next.getClient());
+    }
+
+    @Test
+    public void testInvalidateAllClosesIdleImmediately() {
+        EcrClientRegistry.acquire(key, SERVER_URL, "fp1", factory()).release();
+        EcrClientRegistry.invalidateAll();
+        Assertions.assertEquals(1, shutdowns.get(0).get());
+    }
+
+    private Supplier<AmazonECR> factory() {
+        return () -> {
+            AtomicInteger shutdown = new AtomicInteger();
+            shutdowns.add(shutdown);
+            return (AmazonECR) Proxy.newProxyInstance(
+                    AmazonECR.class.getClassLoader(), new Class<?>[] {AmazonECR.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "shutdown":
+                                shutdown.incrementAndGet();
+                                return null;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "AmazonECR@" + System.identityHashCode(proxy);
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.nexus.handler;
+
+import io.jenkins.plugins.nexus.model.dto.GetLoginPasswordResult;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class EcrTokenCacheTest {
+
+    private static final String SERVER_URL = "https://ecr.example.com";
+
+    private final EcrClientRegistry.Key key = new EcrClientRegistry.Key("ecr", "us-east-1", "aws");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        EcrTokenCache.invalidateAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        EcrTokenCache.invalidateAll();
+    }
+
+    @Test
+    public void testReuseWhileFingerprintUnchanged() {
+        Assertions.assertEquals("p1", get("fp1").getPassword());
+        // 凭据缓存重建后摘要相同，继续使用之前的令牌
+        Assertions.assertEquals("p1", get("fp1").getPassword());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testReloadWhenFingerprintChanged() {
+        Assertions.assertEquals("p1", get("fp1").getPassword());
+        Assertions.assertEquals("p2", get("fp2").getPassword());
+        String otherUrl = "https://other.example.com";
+        Assertions.assertEquals(
+                "p3", EcrTokenCache.get(key, otherUrl, "fp2", loader(otherUrl, "fp2")).getPassword());
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testReturnCopy() {
+        get("fp1").setRepositoryUri("changed");
+        Assertions.assertEquals("repo", get("fp1").getRepositoryUri());
+    }
+
+    private GetLoginPasswordResult get(String fingerprint) {
+        return EcrTokenCache.get(key, SERVER_URL, fingerprint, loader(SERVER_URL, fingerprint));
+    }
+
+    private Supplier<EcrTokenCache.Token> loader(String serverUrl, String fingerprint) {
+        return () -> {
+            GetLoginPasswordResult result = new GetLoginPasswordResult("AWS", "p" + loads.incrementAndGet());
+            result.setRepositoryUri("repo");
+            long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(12);
+            return new EcrTokenCache.Token(result, expiresAt, serverUrl, fingerprint);
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package io.jenkins.plugins.nexus.handler;
+
+import io.jenkins.plugins.nexus.config.NexusRepoServerConfig;
+import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class NexusArtifactHandlerTest {
+
+    private final NexusRepoServerConfig serverConfig = new NexusRepoServerConfig("test", "test", "http://nexus");
+
+    @Test
+    public void testMavenMetadataForReleaseRepository() {
+        Assertions.assertTrue(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("hosted", "RELEASE")));
+        serverConfig.setSearchVersionsOnly(true);
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("hosted", "RELEASE")));
+    }
+
+    @Test
+    public void testSearchForSnapshotRepository() {
+        // 快照仓库的maven-metadata.xml中是基础版本，需要使用搜索接口
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("hosted", "SNAPSHOT")));
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("hosted", "MIXED")));
+    }
+
+    @Test
+    public void testSearchWhenPolicyUnknown() {
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("hosted", null)));
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("group", null)));
+        Assertions.assertFalse(
+                NexusArtifactHandler.isMavenMetadataSupported(serverConfig, repositoryOf("proxy", "RELEASE")));
+        NexusRepositoryDetails raw = repositoryOf("hosted", "RELEASE");
+        raw.setFormat("raw");
+        Assertions.assertFalse(NexusArtifactHandler.isMavenMetadataSupported(serverConfig, raw));
+    }
+
+    @Test
+    public void testVersionTerm() {
+        Assertions.assertNull(NexusArtifactHandler.versionTerm(null));
+        Assertions.assertEquals("1.2.0", NexusArtifactHandler.versionTerm("1.2.0"));
+        Assertions.assertEquals("1.2.*", NexusArtifactHandler.versionTerm("1.2.*"));
+        // 开头或中间的通配符不交给Nexus，在客户端筛选
+        Assertions.assertNull(NexusArtifactHandler.versionTerm("*"));
+        Assertions.assertNull(NexusArtifactHandler.versionTerm("*-RELEASE"));
+        Assertions.assertNull(NexusArtifactHandler.versionTerm("1.*.0"));
+        Assertions.assertNull(NexusArtifactHandler.versionTerm("1.?.*"));
+        Assertions.assertNull(NexusArtifactHandler.versionTerm("1.2.**"));
+    }
+
+    private static NexusRepositoryDetails repositoryOf(String type, String versionPolicy) {
+        NexusRepositoryDetails details = new NexusRepositoryDetails();
+        details.setName("maven-" + type);
+        details.setFormat("maven2");
+        details.setType(type);
+        if (versionPolicy != null) {
+            NexusRepositoryDetails.Maven maven = new NexusRepositoryDetails.Maven();
+            maven.setVersionPolicy(versionPolicy);
+            details.setMaven(maven);
+        }
+        return details;
+    }
+}
@@ -0,0 +1,115 @@
+package io.jenkins.plugins.nexus.handler;
+
+import hudson.util.ListBoxModel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class VersionIndexTest {
+
+    private static final String GA = "com.example:demo:";
+
+    @Test
+    public void testKeepOrder() {
+        VersionIndex index = indexOf("2.0.0", "1.10.0", "1.9.0", "1.2.0");
+        Assertions.assertEquals(4, index.size());
+        Assertions.assertEquals(versions("2.0.0", "1.10.0", "1.9.0", "1.2.0"), valuesOf(index.toListBoxModel()));
+        Assertions.assertEquals(versions("1.10.0", "1.9.0"), valuesOf(index.page(null, 1, 2).getItems()));
+    }
+
+    @Test
+    public void testPaging() {
+        VersionIndex index = indexOf("5", "4", "3", "2", "1");
+        VersionIndex.Page page = index.page("", 0, 2);
+        Assertions.assertEquals(5, page.getTotal());
+        Assertions.assertEquals(0, page.getOffset());
+        Assertions.assertEquals(versions("5", "4"), valuesOf(page.getItems()));
+        Assertions.assertTrue(page.hasMore());
+
+        page = index.page(null, 4, 2);
+        Assertions.assertEquals(versions("1"), valuesOf(page.getItems()));
+        Assertions.assertFalse(page.hasMore());
+
+        // 超出范围的起始位置
+        page = index.page(null, 10, 2);
+        Assertions.assertEquals(5, page.getOffset());
+        Assertions.assertTrue(page.getItems().isEmpty());
+        page = index.page(null, -1, 1);
+        Assertions.assertEquals(0, page.getOffset());
+        Assertions.assertEquals(versions("5"), valuesOf(page.getItems()));
+        Assertions.assertTrue(index.page(null, 0, 0).getItems().isEmpty());
+        Assertions.assertEquals(4, index.page(null, 1, Integer.MAX_VALUE).getItems().size());
+    }
+
+    @Test
+    public void testKeywordMatchesSubstring() {
+        VersionIndex index = indexOf("1.2.0-SNAPSHOT", "1.1.0", "2.1.0-rc1", "0.1.1");
+        // 不只匹配版本号前缀
+        Assertions.assertEquals(versions("1.1.0", "0.1.1"), valuesOf(search(index, "1.1")));
+        Assertions.assertEquals(versions("1.2.0-SNAPSHOT"), valuesOf(search(index, "SNAPSHOT")));
+        Assertions.assertEquals(versions("2.1.0-rc1"), valuesOf(search(index, "rc")));
+        // 区分大小写，与Nexus查询的筛选方式一致
+        Assertions.assertTrue(search(index, "snapshot").isEmpty());
+        // 关键字可以包含groupId和artifactId
+        Assertions.assertEquals(versions("0.1.1"), valuesOf(search(index, "demo:0.")));
+        Assertions.assertEquals(4, search(index, "com.example").size());
+        Assertions.assertTrue(search(index, "1.3").isEmpty());
+    }
+
+    @Test
+    public void testKeywordPaging() {
+        VersionIndex index = indexOf("1.0.3", "2.0.0", "1.0.2", "1.1.0", "1.0.1");
+        VersionIndex.Page page = index.page("1.0.", 1, 1);
+        Assertions.assertEquals(3, page.getTotal());
+        Assertions.assertEquals(versions("1.0.2"), valuesOf(page.getItems()));
+        Assertions.assertTrue(page.hasMore());
+        page = index.page("1.0.", 2, 5);
+        Assertions.assertEquals(versions("1.0.1"), valuesOf(page.getItems()));
+        Assertions.assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void testKeywordMatchesNameAndValue() {
+        ListBoxModel items = new ListBoxModel();
+        items.add("registry/demo:latest", "registry/demo:1.0");
+        items.add("registry/demo:1.1", "registry/demo:1.1");
+        VersionIndex index = VersionIndex.of(items);
+        Assertions.assertEquals(Collections.singletonList("registry/demo:1.1"), valuesOf(search(index, "1.")));
+        Assertions.assertEquals(2, search(index, "demo").size());
+    }
+
+    @Test
+    public void testEmpty() {
+        VersionIndex index = VersionIndex.of(new ListBoxModel());
+        Assertions.assertSame(index, VersionIndex.of(null));
+        Assertions.assertEquals(0, index.page("1", 0, 10).getTotal());
+        Assertions.assertTrue(index.toListBoxModel().isEmpty());
+    }
+
+    private static ListBoxModel search(VersionIndex index, String keyword) {
+        return index.page(keyword, 0, Integer.MAX_VALUE).getItems();
+    }
+
+    private static VersionIndex indexOf(String... versions) {
+        ListBoxModel items = new ListBoxModel();
+        for (String version : versions) {
+            items.add(GA + version, GA + version);
+        }
+        return VersionIndex.of(items);
+    }
+
+    private static List<String> versions(String... versions) {
+        return Arrays.stream(versions).map(v -> GA + v).collect(Collectors.toList());
+    }
+
+    private static List<String> valuesOf(ListBoxModel items) {
+        return items.stream().map(e -> e.value).collect(Collectors.toList());
+    }
+}
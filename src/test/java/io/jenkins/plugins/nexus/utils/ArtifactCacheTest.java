@@ -0,0 +1,122 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class ArtifactCacheTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testStoreAndFetch() throws Exception {
+        ArtifactCache cache = ArtifactCache.of(new File(tempDir, "cache"), 1024);
+        File source = write("source.bin", "hello");
+        cache.store("k", source);
+        File target = new File(tempDir, "ws/target.bin");
+        Assertions.assertEquals(5, cache.fetch("k", target, false, null));
+        Assertions.assertEquals("hello", read(target));
+        // 复制的文件可以修改，不影响缓存
+        Assertions.assertTrue(target.canWrite());
+        Assertions.assertEquals(-1, cache.fetch("missing", target, false, null));
+        Assertions.assertEquals(5, cache.getTotalSize());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyAccessed() throws Exception {
+        ArtifactCache cache = ArtifactCache.of(new File(tempDir, "cache"), 12);
+        File target = new File(tempDir, "target.bin");
+        cache.store("a", write("a.bin", "aaaaaa"));
+        Thread.sleep(10);
+        cache.store("b", write("b.bin", "bbbbbb"));
+        Thread.sleep(10);
+        // 访问a后b成为最久未访问的文件
+        Assertions.assertEquals(6, cache.fetch("a", target, false, null));
+        Thread.sleep(10);
+        cache.store("c", write("c.bin", "cccccc"));
+        Assertions.assertEquals(-1, cache.fetch("b", target, false, null));
+        Assertions.assertEquals(6, cache.fetch("a", target, false, null));
+        Assertions.assertEquals(6, cache.fetch("c", target, false, null));
+        Assertions.assertEquals(12, cache.getTotalSize());
+    }
+
+    @Test
+    public void testShrink() throws Exception {
+        File dir = new File(tempDir, "cache");
+        ArtifactCache cache = ArtifactCache.of(dir, 1024);
+        cache.store("a", write("a.bin", "aaaaaa"));
+        Thread.sleep(10);
+        cache.store("b", write("b.bin", "bbbbbb"));
+        // 同一目录共享实例，修改容量后淘汰
+        Assertions.assertSame(cache, ArtifactCache.of(dir, 6));
+        cache.evict();
+        Assertions.assertEquals(6, cache.getTotalSize());
+        Assertions.assertEquals(6, cache.fetch("b", new File(tempDir, "target.bin"), false, null));
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        ArtifactCache cache = ArtifactCache.of(new File(tempDir, "cache"), 1024);
+        cache.store("k", write("source.bin", "hello"));
+        File target = new File(tempDir, "target.bin");
+        Assertions.assertEquals(5, cache.fetch("k", target, false, checksumOf("hello")));
+        // 摘要不一致时删除缓存，按未命中处理
+        Assertions.assertEquals(-1, cache.fetch("k", target, false, checksumOf("other")));
+        Assertions.assertEquals(-1, cache.fetch("k", target, false, null));
+        Assertions.assertEquals(0, cache.getTotalSize());
+    }
+
+    @Test
+    public void testHardLink() throws Exception {
+        ArtifactCache cache = ArtifactCache.of(new File(tempDir, "cache"), 1024);
+        cache.store("k", write("source.bin", "hello"));
+        File target = new File(tempDir, "ws/target.bin");
+        Assertions.assertEquals(5, cache.fetch("k", target, true, checksumOf("hello")));
+        Assertions.assertEquals("hello", read(target));
+        // 再次取出时替换已有文件
+        Assertions.assertEquals(5, cache.fetch("k", target, true, checksumOf("hello")));
+        // 取消只读后通过链接修改了缓存，下次命中时校验失败并删除缓存
+        Assertions.assertTrue(target.setWritable(true, true));
+        Files.write(target.toPath(), "HELLO".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(-1, cache.fetch("k", new File(tempDir, "other.bin"), true, checksumOf("hello")));
+    }
+
+    @Test
+    public void testHardLinkWithoutChecksumCopies() throws Exception {
+        ArtifactCache cache = ArtifactCache.of(new File(tempDir, "cache"), 1024);
+        cache.store("k", write("source.bin", "hello"));
+        File target = new File(tempDir, "ws/target.bin");
+        Assertions.assertEquals(5, cache.fetch("k", target, true, null));
+        // 没有摘要时无法校验缓存，复制而不是链接
+        Assertions.assertTrue(target.canWrite());
+        Files.write(target.toPath(), "HELLO".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(5, cache.fetch("k", target, true, null));
+        Assertions.assertEquals("hello", read(target));
+    }
+
+    private File write(String name, String content) throws Exception {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static ChecksumDigest checksumOf(String content) {
+        NexusDownloadInfo ndi = new NexusDownloadInfo();
+        ndi.setSha256(DigestUtils.sha256Hex(content));
+        return ChecksumDigest.of(ndi);
+    }
+}
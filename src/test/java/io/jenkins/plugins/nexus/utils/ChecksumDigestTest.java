@@ -0,0 +1,94 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class ChecksumDigestTest {
+
+    private static final byte[] CONTENT = "hello nexus".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testOf() {
+        NexusDownloadInfo ndi = new NexusDownloadInfo();
+        Assertions.assertNull(ChecksumDigest.of(ndi));
+        ndi.setSha1(DigestUtils.sha1Hex(CONTENT));
+        Assertions.assertEquals(ChecksumDigest.SHA1, ChecksumDigest.of(ndi).getAlgorithm());
+        ndi.setSha256(DigestUtils.sha256Hex(CONTENT).toUpperCase());
+        ChecksumDigest checksum = ChecksumDigest.of(ndi);
+        Assertions.assertEquals(ChecksumDigest.SHA256, checksum.getAlgorithm());
+        Assertions.assertEquals("sha256:" + DigestUtils.sha256Hex(CONTENT), checksum.expectedValue());
+    }
+
+    @Test
+    public void testWrapAndVerify() throws Exception {
+        ChecksumDigest checksum = checksumOf(DigestUtils.sha256Hex(CONTENT));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream wrapped = checksum.wrap(out)) {
+            wrapped.write(CONTENT[0]);
+            wrapped.write(CONTENT, 1, CONTENT.length - 1);
+        }
+        Assertions.assertArrayEquals(CONTENT, out.toByteArray());
+        Assertions.assertEquals(checksum.expectedValue(), checksum.value());
+        checksum.verify("test");
+    }
+
+    @Test
+    public void testCatchUp() throws Exception {
+        File file = new File(tempDir, "a.bin");
+        Files.write(file.toPath(), CONTENT);
+        ChecksumDigest checksum = checksumOf(DigestUtils.sha256Hex(CONTENT));
+        // 断点续传：前一部分已经计算过摘要，只补算剩余部分
+        checksum.wrap(new ByteArrayOutputStream()).write(CONTENT, 0, 5);
+        checksum.catchUp(file);
+        checksum.verify("test");
+    }
+
+    @Test
+    public void testMismatch() throws Exception {
+        File file = new File(tempDir, "a.bin");
+        Files.write(file.toPath(), CONTENT);
+        ChecksumDigest checksum = checksumOf(DigestUtils.sha256Hex("other"));
+        checksum.catchUp(file);
+        IOException e = Assertions.assertThrows(IOException.class, () -> checksum.verify("http://nexus/a.bin"));
+        Assertions.assertTrue(e.getMessage().contains("Checksum mismatch"));
+        Assertions.assertTrue(e.getMessage().contains(DigestUtils.sha256Hex(CONTENT)));
+        // 重置后重新计算
+        checksum.reset();
+        Assertions.assertEquals("sha256:" + DigestUtils.sha256Hex(new byte[0]), checksum.value());
+    }
+
+    @Test
+    public void testSha256Hex() throws Exception {
+        File a = new File(tempDir, "a.bin");
+        File b = new File(tempDir, "b.bin");
+        Files.write(a.toPath(), CONTENT);
+        Files.write(b.toPath(), new byte[0]);
+        Map<File, String> hashes = ChecksumDigest.sha256Hex(Arrays.asList(a, b), 2);
+        Assertions.assertEquals(DigestUtils.sha256Hex(CONTENT), hashes.get(a));
+        Assertions.assertEquals(DigestUtils.sha256Hex(new byte[0]), hashes.get(b));
+    }
+
+    private static ChecksumDigest checksumOf(String sha256) {
+        NexusDownloadInfo ndi = new NexusDownloadInfo();
+        ndi.setSha256(sha256);
+        return ChecksumDigest.of(ndi);
+    }
+}
@@ -0,0 +1,135 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.dto.NexusArtifactDownloadResult;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadOptions;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+public class DownloadFilesTest {
+
+    private static final int FILES = 5;
+
+    private static final String MISSING = "f2";
+
+    @TempDir
+    File tempDir;
+
+    private MockNexusServer server;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockNexusServer().handle("/repository/", exchange -> {
+            String name = exchange.getRequestURI().getPath().substring("/repository/".length());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // 越靠前的文件完成得越晚
+                Thread.sleep((FILES - Integer.parseInt(name.substring(1))) * 50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            if (name.equals(MISSING)) {
+                MockNexusServer.respond(exchange, 404, "");
+            } else {
+                MockNexusServer.respond(exchange, 200, "content of " + name);
+            }
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testParallelKeepsListOrder() throws Exception {
+        List<NexusDownloadInfo> downloadList = downloadList("f0", "f1", "f3", "f4");
+        NexusArtifactDownloadResult result = server.client().downloadFiles(downloadList, options(4, true));
+
+        Assertions.assertTrue(maxRunning.get() > 1);
+        Assertions.assertEquals(paths(downloadList), resultPaths(result));
+        for (NexusDownloadInfo ndi : downloadList) {
+            File file = new File(ndi.getFilePath());
+            Assertions.assertEquals(
+                    "content of " + file.getName(), Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testSequential() throws Exception {
+        List<NexusDownloadInfo> downloadList = downloadList("f0", "f1", "f3");
+        NexusArtifactDownloadResult result = server.client().downloadFiles(downloadList, options(1, true));
+
+        Assertions.assertEquals(1, maxRunning.get());
+        Assertions.assertEquals(paths(downloadList), resultPaths(result));
+    }
+
+    @Test
+    public void testFailFast() {
+        List<NexusDownloadInfo> downloadList = downloadList("f0", "f1", MISSING, "f3", "f4");
+        Assertions.assertThrows(
+                NexusClientException.class, () -> server.client().downloadFiles(downloadList, options(4, true)));
+    }
+
+    @Test
+    public void testCollectErrors() throws Exception {
+        List<NexusDownloadInfo> downloadList = downloadList("f0", "f1", MISSING, "f3", "f4");
+        NexusArtifactDownloadResult result = server.client().downloadFiles(downloadList, options(4, false));
+
+        Assertions.assertEquals(paths(downloadList), resultPaths(result));
+        for (NexusArtifactDownloadResult.FileResult fileResult : result.getFiles()) {
+            boolean missing = new File(fileResult.getFilePath()).getName().equals(MISSING);
+            Assertions.assertEquals(missing, fileResult.isFailed(), fileResult.getFilePath());
+            Assertions.assertEquals(!missing, new File(fileResult.getFilePath()).isFile());
+        }
+    }
+
+    private List<NexusDownloadInfo> downloadList(String... names) {
+        List<NexusDownloadInfo> downloadList = new ArrayList<>();
+        for (String name : names) {
+            NexusDownloadInfo ndi = new NexusDownloadInfo();
+            ndi.setDownloadUrl(server.getUrl() + "/repository/" + name);
+            ndi.setFilePath(new File(tempDir, name).getPath());
+            downloadList.add(ndi);
+        }
+        return downloadList;
+    }
+
+    private static NexusDownloadOptions options(int threads, boolean failFast) {
+        NexusDownloadOptions options = new NexusDownloadOptions();
+        options.setThreads(threads);
+        options.setFailFast(failFast);
+        options.setRetries(0);
+        return options;
+    }
+
+    private static List<String> paths(List<NexusDownloadInfo> downloadList) {
+        return downloadList.stream().map(NexusDownloadInfo::getFilePath).collect(Collectors.toList());
+    }
+
+    private static List<String> resultPaths(NexusArtifactDownloadResult result) {
+        return result.getFiles().stream()
+                .map(NexusArtifactDownloadResult.FileResult::getFilePath)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,180 @@
+package io.jenkins.plugins.nexus.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadInfo;
+import io.jenkins.plugins.nexus.model.dto.NexusDownloadOptions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+public class DownloadResumableTest {
+
+    private static final String CONTENT = "0123456789";
+
+    private static final String ETAG = "\"v2\"";
+
+    @TempDir
+    File tempDir;
+
+    private MockNexusServer server;
+
+    private File file;
+
+    private File partFile;
+
+    private File partValidator;
+
+    /**
+     * 每个请求的 Range 和 If-Range 请求头
+     */
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockNexusServer();
+        file = new File(tempDir, "demo.jar");
+        partFile = new File(tempDir, "demo.jar.part");
+        partValidator = new File(tempDir, "demo.jar.part.validator");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testResumeFromPartFile() throws Exception {
+        partial("01234", ETAG);
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes 5-9/10");
+                respond(exchange, 206, CONTENT.substring(5));
+            } else {
+                respond(exchange, 200, CONTENT);
+            }
+        });
+
+        download(0);
+        Assertions.assertEquals(List.of("bytes=5- " + ETAG), requests);
+        assertDownloaded();
+    }
+
+    @Test
+    public void testIfRangeMismatchDownloadsWholeFile() throws Exception {
+        // 服务端文件已变化，If-Range不匹配时返回完整内容，不能追加到旧的临时文件
+        partial("abcde", "\"v1\"");
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            respond(exchange, 200, CONTENT);
+        });
+
+        download(0);
+        Assertions.assertEquals(List.of("bytes=5- \"v1\""), requests);
+        assertDownloaded();
+    }
+
+    @Test
+    public void testPartFileAlreadyComplete() throws Exception {
+        partial(CONTENT, ETAG);
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            exchange.getResponseHeaders().set("Content-Range", "bytes */10");
+            respond(exchange, 416, "");
+        });
+
+        download(0);
+        Assertions.assertEquals(List.of("bytes=10- " + ETAG), requests);
+        assertDownloaded();
+    }
+
+    @Test
+    public void testUnexpectedRangeRestarts() throws Exception {
+        partial("01234", ETAG);
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            if (exchange.getRequestHeaders().containsKey("Range")) {
+                // 返回的区间与临时文件长度不一致，删除临时文件后重试
+                exchange.getResponseHeaders().set("Content-Range", "bytes 3-9/10");
+                respond(exchange, 206, CONTENT.substring(3));
+            } else {
+                respond(exchange, 200, CONTENT);
+            }
+        });
+
+        download(1);
+        Assertions.assertEquals(List.of("bytes=5- " + ETAG, "null null"), requests);
+        assertDownloaded();
+    }
+
+    @Test
+    public void testPartFileWithoutValidatorDiscarded() throws Exception {
+        Files.writeString(partFile.toPath(), "abcde", StandardCharsets.UTF_8);
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            respond(exchange, 200, CONTENT);
+        });
+
+        download(0);
+        Assertions.assertEquals(List.of("null null"), requests);
+        assertDownloaded();
+    }
+
+    @Test
+    public void testFailedDownloadKeepsValidator() throws Exception {
+        server.handle("/repository/", exchange -> {
+            record(exchange);
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            // 声明的长度大于实际写出的内容，模拟连接中断
+            exchange.sendResponseHeaders(200, CONTENT.length());
+            exchange.getResponseBody().write(CONTENT.substring(0, 5).getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+
+        Assertions.assertThrows(NexusClientException.class, () -> download(0));
+        Assertions.assertFalse(file.exists());
+        Assertions.assertEquals(ETAG, Files.readString(partValidator.toPath(), StandardCharsets.UTF_8));
+    }
+
+    private void partial(String content, String validator) throws IOException {
+        Files.writeString(partFile.toPath(), content, StandardCharsets.UTF_8);
+        Files.writeString(partValidator.toPath(), validator, StandardCharsets.UTF_8);
+    }
+
+    private void record(HttpExchange exchange) {
+        requests.add(exchange.getRequestHeaders().getFirst("Range") + " "
+                + exchange.getRequestHeaders().getFirst("If-Range"));
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        MockNexusServer.respond(exchange, code, body);
+    }
+
+    private void download(int retries) throws Exception {
+        NexusDownloadInfo ndi = new NexusDownloadInfo();
+        ndi.setDownloadUrl(server.getUrl() + "/repository/releases/demo.jar");
+        ndi.setFilePath(file.getPath());
+        NexusDownloadOptions options = new NexusDownloadOptions();
+        options.setRetries(retries);
+        server.client().downloadFiles(List.of(ndi), options);
+    }
+
+    private void assertDownloaded() throws IOException {
+        Assertions.assertEquals(CONTENT, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        Assertions.assertFalse(partFile.exists());
+        Assertions.assertFalse(partValidator.exists());
+    }
+}
@@ -0,0 +1,84 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class ExpiringLruCacheTest {
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // 访问a后b成为最久未使用的条目
+        Assertions.assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals("1", cache.get("a"));
+        Assertions.assertEquals("3", cache.get("c"));
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testConfigureShrinks() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(3, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.configure(1, 60_000);
+        Assertions.assertEquals(Arrays.asList("c"), cache.keys());
+        cache.configure(1, 0);
+        Assertions.assertFalse(cache.isEnabled());
+        Assertions.assertEquals(0, cache.size());
+        cache.put("d", "4");
+        Assertions.assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 50);
+        cache.put("a", "1");
+        Assertions.assertTrue(cache.isFresh("a"));
+        Thread.sleep(80);
+        Assertions.assertFalse(cache.isFresh("a"));
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(1, cache.getExpirations());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStale() throws Exception {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 50, 60_000);
+        cache.put("a", "1");
+        ExpiringLruCache.Hit<String> hit = cache.lookup("a");
+        Assertions.assertFalse(hit.isStale());
+        Thread.sleep(80);
+        hit = cache.lookup("a");
+        Assertions.assertNotNull(hit);
+        Assertions.assertTrue(hit.isStale());
+        Assertions.assertEquals("1", hit.getValue());
+        // get只返回未过期的值
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getStaleHits());
+        Assertions.assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testStats() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 60_000);
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(50.0, cache.getHitRate(), 0.001);
+        cache.resetStats();
+        Assertions.assertEquals(0, cache.getHitRate(), 0.001);
+    }
+}
@@ -0,0 +1,111 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.req.NexusUploadSingleComponentReq;
+import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-28
+ */
+public class FindUnchangedFilesTest {
+
+    private static final String JAR = "jar content";
+
+    private static final String POM = "pom content";
+
+    @TempDir
+    File tempDir;
+
+    private MockNexusServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockNexusServer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testMavenMatchesAssetPath() throws Exception {
+        assets(asset("com/example/demo/1.0/demo-1.0.jar", JAR), asset("/com/example/demo/1.0/demo-1.0.pom", "old"));
+        NexusUploadSingleComponentReq req = req(
+                file("demo.jar", JAR),
+                // 内容和jar相同但扩展名不同，上传后是另一个Asset
+                file("demo.zip", JAR),
+                file("demo.pom", POM));
+        Assertions.assertEquals(List.of("demo.jar"), names(findUnchanged("maven2", req)));
+    }
+
+    @Test
+    public void testMavenWithoutExtension() throws Exception {
+        assets(asset("com/example/demo/1.0/demo-1.0.jar", JAR));
+        Assertions.assertTrue(findUnchanged("maven2", req(file("demo", JAR))).isEmpty());
+    }
+
+    @Test
+    public void testRawMatchesFileName() throws Exception {
+        assets(asset("com/example/demo/1.0/a.txt", JAR), asset("com/example/demo/1.0/b.txt", POM));
+        NexusUploadSingleComponentReq req = req(file("a.txt", JAR), file("b.txt", JAR), file("c.txt", JAR));
+        Assertions.assertEquals(List.of("a.txt"), names(findUnchanged("raw", req)));
+    }
+
+    @Test
+    public void testNoAssets() throws Exception {
+        assets();
+        Assertions.assertTrue(findUnchanged("maven2", req(file("demo.jar", JAR))).isEmpty());
+    }
+
+    private List<NexusUploadSingleComponentReq.FileAssert> findUnchanged(
+            String format, NexusUploadSingleComponentReq req) throws Exception {
+        NexusRepositoryDetails repo = new NexusRepositoryDetails();
+        repo.setName("releases");
+        repo.setFormat(format);
+        repo.setType("hosted");
+        return server.client().findUnchangedFiles(repo, req, 2);
+    }
+
+    private void assets(String... items) {
+        String body = "{\"items\":[" + String.join(",", items) + "],\"continuationToken\":null}";
+        server.handle(
+                "/service/rest/v1/search/assets", exchange -> MockNexusServer.respond(exchange, 200, body));
+    }
+
+    private static String asset(String path, String content) {
+        return "{\"path\":\"" + path + "\",\"checksum\":{\"sha256\":\""
+                + DigestUtils.sha256Hex(content).toUpperCase() + "\"}}";
+    }
+
+    private NexusUploadSingleComponentReq.FileAssert file(String name, String content) throws Exception {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new NexusUploadSingleComponentReq.FileAssert(file);
+    }
+
+    private static NexusUploadSingleComponentReq req(NexusUploadSingleComponentReq.FileAssert... files) {
+        NexusUploadSingleComponentReq req = new NexusUploadSingleComponentReq();
+        req.setGroup("com.example");
+        req.setArtifactId("demo");
+        req.setVersion("1.0");
+        req.setFileAsserts(new ArrayList<>(List.of(files)));
+        return req;
+    }
+
+    private static List<String> names(List<NexusUploadSingleComponentReq.FileAssert> files) {
+        return files.stream().map(e -> e.getFile().getName()).collect(Collectors.toList());
+    }
+}
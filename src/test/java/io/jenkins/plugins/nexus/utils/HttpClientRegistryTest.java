@@ -0,0 +1,85 @@
+package io.jenkins.plugins.nexus.utils;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.BasicHttpClientResponseHandler;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-12
+ */
+public class HttpClientRegistryTest {
+
+    private static final String KEY = "http-client-registry-test";
+
+    private MockNexusServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockNexusServer().handle("/", exchange -> MockNexusServer.respond(exchange, 200, "ok"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        HttpClientRegistry.invalidate(KEY);
+        server.close();
+    }
+
+    @Test
+    public void testReuseClient() {
+        HttpClientRegistry.PooledClient first = HttpClientRegistry.acquire(KEY, HttpClientSettings.defaults());
+        first.release();
+        HttpClientRegistry.PooledClient second = HttpClientRegistry.acquire(KEY, HttpClientSettings.defaults());
+        second.release();
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    public void testInvalidateClosesAfterRelease() throws Exception {
+        HttpClientRegistry.PooledClient pooled = HttpClientRegistry.acquire(KEY, HttpClientSettings.defaults());
+        HttpClientRegistry.invalidate(KEY);
+
+        // 正在执行请求时不关闭
+        Assertions.assertEquals("ok", get(pooled.getClient()));
+
+        HttpClientRegistry.PooledClient replaced = HttpClientRegistry.acquire(KEY, HttpClientSettings.defaults());
+        Assertions.assertNotSame(pooled, replaced);
+        replaced.release();
+
+        pooled.release();
+        Assertions.assertThrows(IllegalStateException.class, () -> get(pooled.getClient()));
+        // 已替换的客户端不能再分配请求
+        Assertions.assertFalse(pooled.tryAcquire());
+    }
+
+    @Test
+    public void testSettingsChangeRetiresClient() {
+        HttpClientRegistry.PooledClient pooled = HttpClientRegistry.acquire(KEY, HttpClientSettings.defaults());
+        pooled.release();
+        HttpClientSettings settings = HttpClientSettings.defaults();
+        settings.setMaxConnTotal(HttpClientSettings.DEFAULT_MAX_CONN_TOTAL + 1);
+        HttpClientRegistry.PooledClient replaced = HttpClientRegistry.acquire(KEY, settings);
+        replaced.release();
+
+        Assertions.assertNotSame(pooled, replaced);
+        Assertions.assertThrows(IllegalStateException.class, () -> get(pooled.getClient()));
+    }
+
+    @Test
+    public void testUnsharedClientClosed() {
+        NexusRepositoryClient client = new NexusRepositoryClient(server.getUrl(), null, false);
+        client.check();
+        Assertions.assertFalse(HttpClientRegistry.getStats().containsKey(server.getUrl()));
+
+        client.close();
+        Assertions.assertThrows(NexusClientException.class, client::check);
+    }
+
+    private String get(CloseableHttpClient client) throws Exception {
+        return client.execute(new HttpGet(server.getUrl() + "/"), new BasicHttpClientResponseHandler());
+    }
+}
@@ -0,0 +1,109 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class HttpValidatorsTest {
+
+    private static final String LAST_MODIFIED = "Tue, 13 Aug 2024 08:00:00 GMT";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testFromAndApply() {
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader(HttpHeaders.ETAG, "\"abc\"");
+        response.addHeader(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+        HttpValidators validators = HttpValidators.from(response);
+        Assertions.assertTrue(validators.isConditional());
+
+        BasicHttpRequest request = new BasicHttpRequest("GET", "/a.bin");
+        validators.applyTo(request);
+        Assertions.assertEquals("\"abc\"", request.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        Assertions.assertEquals(LAST_MODIFIED, request.getFirstHeader(HttpHeaders.IF_MODIFIED_SINCE).getValue());
+    }
+
+    @Test
+    public void testEmpty() {
+        HttpValidators validators = HttpValidators.from(new BasicHttpResponse(200));
+        Assertions.assertTrue(validators.isEmpty());
+        Assertions.assertFalse(validators.isConditional());
+        Assertions.assertNull(validators.ifRangeValue());
+    }
+
+    @Test
+    public void testIfRange() {
+        HttpValidators validators = new HttpValidators();
+        validators.setEtag("\"abc\"");
+        validators.setLastModified(LAST_MODIFIED);
+        Assertions.assertEquals("\"abc\"", validators.ifRangeValue());
+        // 弱ETag不能用于If-Range
+        validators.setEtag("W/\"abc\"");
+        Assertions.assertEquals(LAST_MODIFIED, validators.ifRangeValue());
+    }
+
+    @Test
+    public void testMatchesAsset() {
+        HttpValidators validators = new HttpValidators();
+        validators.setAssetLastModified("2024-08-13T08:00:00.000+00:00");
+        Assertions.assertTrue(validators.matchesAsset("2024-08-13T08:00:00.000+00:00", null));
+        Assertions.assertFalse(validators.matchesAsset("2024-08-14T08:00:00.000+00:00", null));
+        // 双方都有摘要时只比较摘要
+        validators.setChecksum("sha256:ABC");
+        Assertions.assertTrue(validators.matchesAsset("2024-08-14T08:00:00.000+00:00", "sha256:abc"));
+        Assertions.assertFalse(validators.matchesAsset("2024-08-13T08:00:00.000+00:00", "sha256:def"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File dir = new File(tempDir, "validators");
+        File file = new File(tempDir, "ws/a.bin");
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), "hello".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertNull(HttpValidators.load(dir, file));
+
+        HttpValidators validators = new HttpValidators();
+        validators.setEtag("\"abc\"");
+        validators.setChecksum("sha256:abc");
+        validators.save(dir, file);
+        // 校验信息不写入文件所在目录
+        Assertions.assertArrayEquals(new String[] {"a.bin"}, file.getParentFile().list());
+
+        HttpValidators loaded = HttpValidators.load(dir, file);
+        Assertions.assertNotNull(loaded);
+        Assertions.assertEquals("\"abc\"", loaded.getEtag());
+        Assertions.assertNull(loaded.getLastModified());
+        Assertions.assertEquals("sha256:abc", loaded.getChecksum());
+        Assertions.assertEquals(5, loaded.getFileSize());
+
+        // 文件被修改后校验信息失效
+        Files.write(file.toPath(), "hello world".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertNull(HttpValidators.load(dir, file));
+    }
+
+    @Test
+    public void testSaveEmpty() throws Exception {
+        File dir = new File(tempDir, "validators");
+        File file = new File(tempDir, "a.bin");
+        Files.write(file.toPath(), "hello".getBytes(StandardCharsets.UTF_8));
+        HttpValidators validators = new HttpValidators();
+        validators.setEtag("\"abc\"");
+        validators.save(dir, file);
+        Assertions.assertNotNull(HttpValidators.load(dir, file));
+        // 没有校验信息时删除之前保存的内容
+        new HttpValidators().save(dir, file);
+        Assertions.assertNull(HttpValidators.load(dir, file));
+    }
+}
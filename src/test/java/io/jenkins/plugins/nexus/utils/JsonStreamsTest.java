@@ -0,0 +1,90 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class JsonStreamsTest {
+
+    @Test
+    public void testReadPage() throws Exception {
+        String json = "{\"items\":[{\"name\":\"a\",\"extra\":{\"x\":[1,2]}},{\"name\":\"b\"}],"
+                + "\"continuationToken\":\"next\"}";
+        List<String> names = new ArrayList<>();
+        String token = JsonStreams.readPage(stream(json), Item.class, item -> names.add(item.getName()));
+        Assertions.assertEquals("next", token);
+        Assertions.assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    @Test
+    public void testTokenBeforeItems() throws Exception {
+        String json = "{\"continuationToken\":\"next\",\"items\":[{\"name\":\"a\"}]}";
+        List<String> names = new ArrayList<>();
+        Assertions.assertEquals(
+                "next", JsonStreams.readPage(stream(json), Item.class, item -> names.add(item.getName())));
+        Assertions.assertEquals(Arrays.asList("a"), names);
+    }
+
+    @Test
+    public void testLastPage() throws Exception {
+        String json = "{\"items\":[{\"name\":\"a\"}],\"continuationToken\":null}";
+        Assertions.assertNull(JsonStreams.readPage(stream(json), Item.class, item -> true));
+    }
+
+    @Test
+    public void testNullItems() throws Exception {
+        String json = "{\"items\":null,\"continuationToken\":\"next\"}";
+        List<String> names = new ArrayList<>();
+        Assertions.assertEquals(
+                "next", JsonStreams.readPage(stream(json), Item.class, item -> names.add(item.getName())));
+        Assertions.assertTrue(names.isEmpty());
+    }
+
+    @Test
+    public void testEarlyStop() throws Exception {
+        String json = "{\"items\":[{\"name\":\"a\"},{\"name\":\"b\"},{\"name\":\"c\"}],"
+                + "\"continuationToken\":\"next\"}";
+        List<String> names = new ArrayList<>();
+        String token = JsonStreams.readPage(stream(json), Item.class, item -> {
+            names.add(item.getName());
+            return names.size() < 2;
+        });
+        // 提前停止时不返回continuationToken，也不读取剩余的元素
+        Assertions.assertNull(token);
+        Assertions.assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    @Test
+    public void testNotObject() {
+        Assertions.assertThrows(
+                IOException.class, () -> JsonStreams.readPage(stream("[1,2]"), Item.class, item -> true));
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        Item item = JsonStreams.read(stream("{\"name\":\"a\",\"unknown\":1}"), Item.class);
+        Assertions.assertEquals("a", item.getName());
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Getter
+    @Setter
+    public static class Item {
+        private String name;
+    }
+}
@@ -0,0 +1,64 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class MavenMetadataTest {
+
+    @Test
+    public void testParseVersions() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<metadata>\n"
+                + "  <groupId>com.example</groupId>\n"
+                + "  <artifactId>demo</artifactId>\n"
+                + "  <version>0.9</version>\n"
+                + "  <versioning>\n"
+                + "    <latest>1.1</latest>\n"
+                + "    <release>1.1</release>\n"
+                + "    <versions>\n"
+                + "      <version>1.0</version>\n"
+                + "      <version> 1.0.1 </version>\n"
+                + "      <version></version>\n"
+                + "      <version>1.1</version>\n"
+                + "    </versions>\n"
+                + "    <lastUpdated>20240801000000</lastUpdated>\n"
+                + "  </versioning>\n"
+                + "</metadata>";
+        Assertions.assertEquals(Arrays.asList("1.0", "1.0.1", "1.1"), MavenMetadata.parseVersions(stream(xml)));
+    }
+
+    @Test
+    public void testNoVersioning() throws Exception {
+        String xml = "<metadata><groupId>com.example</groupId><version>1.0</version></metadata>";
+        Assertions.assertEquals(Collections.emptyList(), MavenMetadata.parseVersions(stream(xml)));
+    }
+
+    @Test
+    public void testInvalidXml() {
+        Assertions.assertThrows(
+                IOException.class, () -> MavenMetadata.parseVersions(stream("<metadata><versioning>")));
+    }
+
+    @Test
+    public void testIgnoreDoctype() {
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE metadata [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+                + "<metadata><versioning><versions><version>&xxe;</version></versions></versioning></metadata>";
+        // 不解析外部实体
+        Assertions.assertThrows(IOException.class, () -> MavenMetadata.parseVersions(stream(xml)));
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.nexus.utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-27
+ */
+public class SingleFlightTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "v";
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> second = executor.submit(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+        waitShared(flight);
+        release.countDown();
+        Assertions.assertEquals("v", first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("v", second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    public void testDifferentKeys() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        Assertions.assertEquals("a", flight.execute("a", () -> "a"));
+        Assertions.assertEquals("b", flight.execute("b", () -> "b"));
+        Assertions.assertEquals(0, flight.getSharedCount());
+    }
+
+    @Test
+    public void testExceptionPropagation() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> flight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("boom");
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> second = executor.submit(() -> flight.execute("k", () -> "other"));
+        waitShared(flight);
+        release.countDown();
+        assertCause(first, "boom");
+        // 等待中的调用方收到同一个异常
+        assertCause(second, "boom");
+        Assertions.assertEquals(0, flight.getInFlightCount());
+        // 失败的结果不会保留
+        Assertions.assertEquals("v", flight.execute("k", () -> "v"));
+    }
+
+    private static void assertCause(Future<String> future, String message) {
+        ExecutionException e =
+                Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+        Assertions.assertEquals(message, e.getCause().getMessage());
+    }
+
+    private static void waitShared(SingleFlight<?, ?> flight) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flight.getSharedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(1, flight.getSharedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
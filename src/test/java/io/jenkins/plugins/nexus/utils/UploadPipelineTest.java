@@ -0,0 +1,192 @@
+package io.jenkins.plugins.nexus.utils;
+
+import io.jenkins.plugins.nexus.model.dto.NexusUploadOptions;
+import io.jenkins.plugins.nexus.model.req.NexusUploadSingleComponentReq;
+import io.jenkins.plugins.nexus.model.resp.NexusRepositoryDetails;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Bruce.Wu
+ * @date 2024-08-28
+ */
+public class UploadPipelineTest {
+
+    private static final String COMPONENTS = "/service/rest/v1/components";
+
+    private static final Pattern GENERATE_POM =
+            Pattern.compile("name=\"maven2\\.generate-pom\"[\\s\\S]*?\\r\\n\\r\\n(\\w+)");
+
+    private static final Pattern FIRST_FILENAME = Pattern.compile("filename=\"([^\"]+)\"");
+
+    @TempDir
+    File tempDir;
+
+    private MockNexusServer server;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockNexusServer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testMavenBatchesInOrderWithOnePom() throws Exception {
+        List<String> firstFiles = Collections.synchronizedList(new ArrayList<>());
+        List<String> generatePom = Collections.synchronizedList(new ArrayList<>());
+        server.handle(COMPONENTS, exchange -> {
+            enter();
+            try {
+                String body = MockNexusServer.readBody(exchange);
+                Matcher file = FIRST_FILENAME.matcher(body);
+                firstFiles.add(file.find() ? file.group(1) : null);
+                Matcher pom = GENERATE_POM.matcher(body);
+                generatePom.add(pom.find() ? pom.group(1) : null);
+                Thread.sleep(50);
+                MockNexusServer.respond(exchange, 204, "");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        NexusUploadSingleComponentReq req = req(7);
+        req.setGeneratePom(true);
+        req.setPacking("jar");
+        server.client().uploadSingleComponent(repo("maven2"), req, options(4, 0), null);
+        Assertions.assertEquals(List.of("f1.txt", "f4.txt", "f7.txt"), firstFiles);
+        Assertions.assertEquals(List.of("false", "false", "true"), generatePom);
+        Assertions.assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testRawBatchesInParallel() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        server.handle(COMPONENTS, exchange -> {
+            enter();
+            try {
+                MockNexusServer.readBody(exchange);
+                requests.incrementAndGet();
+                Thread.sleep(200);
+                MockNexusServer.respond(exchange, 204, "");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        server.client().uploadSingleComponent(repo("raw"), req(12), options(4, 0), null);
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertTrue(maxRunning.get() > 1, "max running: " + maxRunning.get());
+    }
+
+    @Test
+    public void testFailedBatchStopsUpload() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        server.handle(COMPONENTS, exchange -> {
+            String body = MockNexusServer.readBody(exchange);
+            requests.incrementAndGet();
+            MockNexusServer.respond(exchange, body.contains("f4.txt") ? 500 : 204, "");
+        });
+        NexusClientException e = Assertions.assertThrows(
+                NexusClientException.class,
+                () -> server.client().uploadSingleComponent(repo("maven2"), req(12), options(4, 1), null));
+        Assertions.assertTrue(e.getMessage().contains("500"), e.getMessage());
+        // 第二个批次重试一次后失败，后面的批次不再上传
+        Assertions.assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testRawPutStoredByPreviousAttempt() throws Exception {
+        AtomicInteger puts = storedByFirstAttempt("content of f1");
+        server.client().uploadSingleComponent(repo("raw"), req(1), rawPut(), null);
+        Assertions.assertEquals(2, puts.get());
+    }
+
+    @Test
+    public void testRawPutRejectedWhenStoredContentDiffers() throws Exception {
+        AtomicInteger puts = storedByFirstAttempt("other content");
+        Assertions.assertThrows(
+                NexusClientException.class,
+                () -> server.client().uploadSingleComponent(repo("raw"), req(1), rawPut(), null));
+        Assertions.assertEquals(2, puts.get());
+    }
+
+    /**
+     * 第一次上传保存成功但响应失败，重试时仓库不允许重新部署
+     */
+    private AtomicInteger storedByFirstAttempt(String storedContent) {
+        AtomicInteger puts = new AtomicInteger();
+        server.handle("/repository/raw-hosted/", exchange -> {
+            MockNexusServer.readBody(exchange);
+            MockNexusServer.respond(exchange, puts.incrementAndGet() == 1 ? 502 : 400, "");
+        });
+        String body = "{\"items\":[{\"path\":\"com/example/demo/1.0/f1.txt\",\"checksum\":{\"sha256\":\""
+                + DigestUtils.sha256Hex(storedContent) + "\"}}]}";
+        server.handle("/service/rest/v1/search/assets", exchange -> MockNexusServer.respond(exchange, 200, body));
+        return puts;
+    }
+
+    private void enter() {
+        int current = running.incrementAndGet();
+        maxRunning.accumulateAndGet(current, Math::max);
+    }
+
+    private NexusRepositoryDetails repo(String format) {
+        NexusRepositoryDetails repo = new NexusRepositoryDetails();
+        repo.setName(format + "-hosted");
+        repo.setFormat(format);
+        repo.setType("hosted");
+        repo.setUrl(server.getUrl() + "/repository/" + format + "-hosted");
+        return repo;
+    }
+
+    private NexusUploadSingleComponentReq req(int count) throws Exception {
+        List<NexusUploadSingleComponentReq.FileAssert> files = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            File file = new File(tempDir, "f" + i + ".txt");
+            Files.write(file.toPath(), ("content of f" + i).getBytes(StandardCharsets.UTF_8));
+            files.add(new NexusUploadSingleComponentReq.FileAssert(file));
+        }
+        NexusUploadSingleComponentReq req = new NexusUploadSingleComponentReq();
+        req.setGroup("com.example");
+        req.setArtifactId("demo");
+        req.setVersion("1.0");
+        req.setFileAsserts(files);
+        return req;
+    }
+
+    private static NexusUploadOptions rawPut() {
+        NexusUploadOptions options = options(1, 2);
+        options.setRawPut(true);
+        return options;
+    }
+
+    private static NexusUploadOptions options(int threads, int retries) {
+        NexusUploadOptions options = new NexusUploadOptions();
+        options.setThreads(threads);
+        options.setRetries(retries);
+        return options;
+    }
+}